@@ -1,6 +1,5 @@
 package collinear;
 
-import java.util.Arrays;
 import java.util.LinkedList;
 
 /**
@@ -14,32 +13,12 @@ public class BruteCollinearPoints {
      * Constructor of BruteCollinearPoints.
      */
     public BruteCollinearPoints(Point[] points) {
-        if (points == null) {
-            throw new IllegalArgumentException("The points can't be null.");
-        }
-
-        for (Point p : points) {
-            if (p == null) {
-                throw new IllegalArgumentException("Every point can't be null.");
-            }
-        }
-
-        int length = points.length;
-        for (int i = 0; i < length; i++) {
-            for (int j = i + 1; j < length; j++) {
-                if (points[i].compareTo(points[j]) == 0) {
-                    throw new IllegalArgumentException("Points can't repeat.");
-                }
-            }
-        }
-
+        Point[] sortedPoints = Points.sortedCopy(points);
+        int length = sortedPoints.length;
         if (length < MINIMUM_LENGTH) {
             return;
         }
 
-        Point[] sortedPoints = Arrays.copyOf(points, length);
-        Arrays.parallelSort(sortedPoints);
-
         for (int i = 0; i < length; i++) {
             for (int j = i + 1; j < length; j++) {
                 for (int k = j + 1; k < length; k++) {
@@ -0,0 +1,88 @@
+package collinear;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Benchmark of the collinear detectors on grids and on random points.
+ * <p>
+ * For every n, runs each detector on a square grid of about n points, where most
+ * points lie on many segments, and on n random distinct points, where almost none
+ * do, and reports the time and the number of segments. Every detector runs once on
+ * small inputs first to warm up. {@link BruteCollinearPoints} is O(n⁴) and is only
+ * run up to {@link #BRUTE_LIMIT} points; it also reports every 4 points of a longer
+ * line as a segment of their own, so its count differs on grids.
+ *
+ * @author huangkai
+ */
+public class CollinearBenchmark {
+    /**
+     * The largest input the brute-force detector runs on.
+     */
+    private static final int BRUTE_LIMIT = 400;
+
+    /**
+     * @return a square grid of about n points.
+     */
+    private static Point[] grid(int n) {
+        int side = (int) Math.ceil(Math.sqrt(n));
+        Point[] points = new Point[side * side];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(i % side, i / side);
+        }
+        return points;
+    }
+
+    /**
+     * @return n distinct random points.
+     */
+    private static Point[] random(int n, Random random) {
+        Point[] points = new Point[n];
+        Set<Integer> taken = new HashSet<>();
+        for (int i = 0; i < n; ) {
+            int x = random.nextInt(1 << 15);
+            int y = random.nextInt(1 << 15);
+            if (taken.add(y << 15 | x)) {
+                points[i++] = new Point(x, y);
+            }
+        }
+        return points;
+    }
+
+    private static void measure(String name, Function<Point[], LineSegment[]> detector, Point[] points) {
+        long start = System.nanoTime();
+        int segments = detector.apply(points).length;
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("  %-6s %10.1f ms  %8d segments%n", name, elapsed / 1e6, segments);
+    }
+
+    private static void run(String input, Point[] points) {
+        System.out.println(input + ", n = " + points.length);
+        if (points.length <= BRUTE_LIMIT) {
+            measure("brute", p -> new BruteCollinearPoints(p).segments(), points);
+        }
+        measure("sort", p -> new FastCollinearPoints(p).segments(), points);
+        measure("hash", p -> new HashCollinearPoints(p).segments(), points);
+    }
+
+    /**
+     * Usage: CollinearBenchmark n1 [n2 ...]
+     */
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        for (int round = 0; round < 3; round++) {
+            Point[] warmUp = random(200, random);
+            new BruteCollinearPoints(warmUp);
+            new FastCollinearPoints(grid(1000));
+            new HashCollinearPoints(grid(1000));
+        }
+
+        for (String arg : args) {
+            int n = Integer.parseInt(arg);
+            run("grid", grid(n));
+            run("random", random(n, random));
+        }
+    }
+}
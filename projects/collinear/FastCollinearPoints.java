@@ -1 +1,167 @@
-package collinear;import edu.princeton.cs.algs4.In;import edu.princeton.cs.algs4.StdDraw;import edu.princeton.cs.algs4.StdOut;import java.util.LinkedList;import java.util.Arrays;public class FastCollinearPoints {    private static final int MINIMUM_LENGTH = 4;    private final LinkedList<LineSegment> collinearLineSegments = new LinkedList<>();    /**     * Constructor of FastCollinearPoints.     */    public FastCollinearPoints(Point[] points) {        if (points == null) {            throw new IllegalArgumentException("The points can't be null.");        }        for (Point p : points) {            if (p == null) {                throw new IllegalArgumentException("Every point can't be null.");            }        }        int length = points.length;        for (int i = 0; i < length; i++) {            for (int j = i + 1; j < length; j++) {                if (points[i].compareTo(points[j]) == 0) {                    throw new IllegalArgumentException("Points can't repeat.");                }            }        }        if (length < MINIMUM_LENGTH) {            return;        }        Point[] sortedPoints = Arrays.copyOf(points, length);        Arrays.parallelSort(sortedPoints);        Point[] pointsBySlope = sortedPoints.clone();        for (Point point : points) {            Arrays.sort(pointsBySlope, point.slopeOrder());            for (int i = 0; i < length; ) {                int j = i + 1;                while (j < length && point.slopeTo(pointsBySlope[i]) == point.slopeTo(pointsBySlope[j])) {                    j++;                }                if (j - i >= 3 && pointsBySlope[0].compareTo(min(pointsBySlope, i, j - 1)) < 0) {                    collinearLineSegments.add(new LineSegment(pointsBySlope[0], max(pointsBySlope, i, j - 1)));                }                if (j == length) {                    break;                }                i = j;            }        }    }    private Point min(Point[] points, int low, int high) {        Point min = points[low];        for (int i = low + 1; i <= high; i++) {            if (points[i].compareTo(min) < 0) {                min = points[i];            }        }        return min;    }    private Point max(Point[] points, int low, int high) {        Point max = points[low];        for (int i = low + 1; i <= high; i++) {            if (points[i].compareTo(max) > 0) {                max = points[i];            }        }        return max;    }    /**     * @return the number of segments.     */    public int numberOfSegments() {        return collinearLineSegments.size();    }    /**     * @return the line segments.     */    public LineSegment[] segments() {        LineSegment[] lineSegments = new LineSegment[numberOfSegments()];        int index = 0;        for (LineSegment lineSegment : collinearLineSegments) {            lineSegments[index++] = lineSegment;        }        return lineSegments;    }    public static void main(String[] args) {        // read the n points from a file        In in = new In(args[0]);        int n = in.readInt();        Point[] points = new Point[n];        for (int i = 0; i < n; i++) {            int x = in.readInt();            int y = in.readInt();            points[i] = new Point(x, y);        }        // draw the points        StdDraw.enableDoubleBuffering();        StdDraw.setXscale(0, 32768);        StdDraw.setYscale(0, 32768);        for (Point p : points) {            p.draw();        }        StdDraw.show();        // print and draw the line segments        FastCollinearPoints collinear = new FastCollinearPoints(points);        for (LineSegment segment : collinear.segments()) {            StdOut.println(segment);            segment.draw();        }        StdDraw.show();    }}
\ No newline at end of file
+package collinear;
+
+import edu.princeton.cs.algs4.StdDraw;
+import edu.princeton.cs.algs4.StdOut;
+import fastio.TokenReader;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds every line segment through 4 or more of the points, in O(n² log n).
+ * <p>
+ * Every point in turn is the origin: the other points are sorted by the slope they
+ * make with it, so the points on a line through the origin end up next to each
+ * other. The origins are scanned in parallel, split over a fork-join pool.
+ * <p>
+ * The slope sort is a primitive sort of longs: the exact {@link Point#slopeKey(Point)}
+ * in the high half and the index of the point in natural order in the low half. So
+ * equal slopes are grouped exactly, without floating point or boxing, and every run
+ * of equal slopes is in natural order: its first point tells whether the origin is
+ * the smallest, and its last point is the other end. A segment is only reported by
+ * its smallest point, so no two origins report the same segment and the tasks don't
+ * share anything but the sorted input.
+ *
+ * @author huangkai
+ */
+public class FastCollinearPoints {
+    private static final int MINIMUM_LENGTH = 4;
+
+    /**
+     * The number of origins a task scans by itself instead of splitting further.
+     */
+    private static final int SEQUENTIAL_ORIGINS = 32;
+
+    /**
+     * The line segments found.
+     */
+    private final LineSegment[] collinearLineSegments;
+
+    /**
+     * Constructor of FastCollinearPoints.
+     */
+    public FastCollinearPoints(Point[] points) {
+        Point[] sortedPoints = Points.sortedCopy(points);
+        int length = sortedPoints.length;
+
+        if (length < MINIMUM_LENGTH) {
+            collinearLineSegments = new LineSegment[0];
+            return;
+        }
+
+        List<LineSegment> found = ForkJoinPool.commonPool().invoke(new OriginTask(sortedPoints, 0, length));
+        collinearLineSegments = found.toArray(new LineSegment[0]);
+    }
+
+    /**
+     * Scans the origins [low, high) of the sorted points.
+     */
+    @SuppressWarnings("serial")
+    private static class OriginTask extends RecursiveTask<List<LineSegment>> {
+        private final Point[] sortedPoints;
+        private final int low;
+        private final int high;
+
+        OriginTask(Point[] sortedPoints, int low, int high) {
+            this.sortedPoints = sortedPoints;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected List<LineSegment> compute() {
+            if (high - low <= SEQUENTIAL_ORIGINS) {
+                List<LineSegment> found = new ArrayList<>();
+                long[] keys = new long[sortedPoints.length - 1];
+                for (int origin = low; origin < high; origin++) {
+                    scan(sortedPoints, origin, keys, found);
+                }
+                return found;
+            }
+
+            int mid = (low + high) >>> 1;
+            OriginTask right = new OriginTask(sortedPoints, mid, high);
+            right.fork();
+            List<LineSegment> found = new OriginTask(sortedPoints, low, mid).compute();
+            found.addAll(right.join());
+            return found;
+        }
+    }
+
+    /**
+     * Add the segments whose smallest point is the origin.
+     *
+     * @param keys scratch space for the other points.
+     */
+    private static void scan(Point[] sortedPoints, int origin, long[] keys, List<LineSegment> found) {
+        Point p = sortedPoints[origin];
+        int count = 0;
+        for (int i = 0; i < sortedPoints.length; i++) {
+            if (i != origin) {
+                keys[count++] = (long) p.slopeKey(sortedPoints[i]) << 32 | i;
+            }
+        }
+        Arrays.sort(keys);
+
+        for (int i = 0; i < count; ) {
+            long slope = keys[i] >>> 32;
+            int j = i + 1;
+            while (j < count && keys[j] >>> 32 == slope) {
+                j++;
+            }
+
+            if (j - i >= MINIMUM_LENGTH - 1 && (int) keys[i] > origin) {
+                found.add(new LineSegment(p, sortedPoints[(int) keys[j - 1]]));
+            }
+            i = j;
+        }
+    }
+
+    /**
+     * @return the number of segments.
+     */
+    public int numberOfSegments() {
+        return collinearLineSegments.length;
+    }
+
+    /**
+     * @return the line segments.
+     */
+    public LineSegment[] segments() {
+        return Arrays.copyOf(collinearLineSegments, collinearLineSegments.length);
+    }
+
+    public static void main(String[] args) {
+
+        // read the n points from a file
+        TokenReader in = new TokenReader(Path.of(args[0]));
+        int n = in.readInt();
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            int x = in.readInt();
+            int y = in.readInt();
+            points[i] = new Point(x, y);
+        }
+
+        // draw the points
+        StdDraw.enableDoubleBuffering();
+        StdDraw.setXscale(0, 32768);
+        StdDraw.setYscale(0, 32768);
+        for (Point p : points) {
+            p.draw();
+        }
+        StdDraw.show();
+
+        // print and draw the line segments
+        FastCollinearPoints collinear = new FastCollinearPoints(points);
+        for (LineSegment segment : collinear.segments()) {
+            StdOut.println(segment);
+            segment.draw();
+        }
+        StdDraw.show();
+    }
+}
@@ -0,0 +1,101 @@
+package collinear;
+
+import edu.princeton.cs.algs4.StdOut;
+import fastio.TokenReader;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds every line segment through 4 or more of the points, like
+ * {@link FastCollinearPoints}, in expected O(n²) instead of O(n² log n).
+ * <p>
+ * For every origin, the other points are bucketed by slope in a
+ * {@link SlopeBuckets} table instead of being sorted. The table is allocated once
+ * and reused for every origin. As in {@link FastCollinearPoints}, a segment is only
+ * reported by its smallest point.
+ *
+ * @author huangkai
+ */
+public class HashCollinearPoints {
+    private static final int MINIMUM_LENGTH = 4;
+
+    /**
+     * The line segments found.
+     */
+    private final LineSegment[] collinearLineSegments;
+
+    /**
+     * Constructor of HashCollinearPoints.
+     */
+    public HashCollinearPoints(Point[] points) {
+        Point[] sortedPoints = Points.sortedCopy(points);
+        int length = sortedPoints.length;
+
+        if (length < MINIMUM_LENGTH) {
+            collinearLineSegments = new LineSegment[0];
+            return;
+        }
+
+        SlopeBuckets buckets = new SlopeBuckets();
+        List<LineSegment> found = new ArrayList<>();
+        for (int origin = 0; origin < length; origin++) {
+            scan(sortedPoints, origin, buckets, found);
+        }
+        collinearLineSegments = found.toArray(new LineSegment[0]);
+    }
+
+    /**
+     * Add the segments whose smallest point is the origin.
+     */
+    private static void scan(Point[] sortedPoints, int origin, SlopeBuckets buckets, List<LineSegment> found) {
+        Point p = sortedPoints[origin];
+        buckets.reset(sortedPoints.length);
+        for (int i = 0; i < sortedPoints.length; i++) {
+            if (i != origin) {
+                buckets.add(p, sortedPoints[i], i);
+            }
+        }
+
+        for (int k = 0; k < buckets.size(); k++) {
+            if (buckets.count(k) >= MINIMUM_LENGTH - 1 && buckets.min(k) > origin) {
+                found.add(new LineSegment(p, sortedPoints[buckets.max(k)]));
+            }
+        }
+    }
+
+    /**
+     * @return the number of segments.
+     */
+    public int numberOfSegments() {
+        return collinearLineSegments.length;
+    }
+
+    /**
+     * @return the line segments.
+     */
+    public LineSegment[] segments() {
+        return Arrays.copyOf(collinearLineSegments, collinearLineSegments.length);
+    }
+
+    /**
+     * Prints the line segments of the points in a file.
+     */
+    public static void main(String[] args) {
+        TokenReader in = new TokenReader(Path.of(args[0]));
+        int n = in.readInt();
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            int x = in.readInt();
+            int y = in.readInt();
+            points[i] = new Point(x, y);
+        }
+
+        HashCollinearPoints collinear = new HashCollinearPoints(points);
+        for (LineSegment segment : collinear.segments()) {
+            StdOut.println(segment);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package collinear;
+
+import edu.princeton.cs.algs4.StdOut;
+import fastio.TokenReader;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps every line segment through 4 or more of a changing set of points.
+ * <p>
+ * Only the lines through a point added or removed can change, so each change
+ * buckets the other points by their slope to it, as {@link HashCollinearPoints}
+ * does for one origin, in O(n) expected time. Only a bucket of 3 or more points is
+ * a line of 4 or more, and only such lines are kept, by their
+ * {@link Point#lineKey(Point)}, with their smallest and largest point.
+ * <p>
+ * The segments are cached as an array, rebuilt from the lines after a change.
+ *
+ * @author huangkai
+ */
+public class IncrementalCollinearPoints {
+    private static final int MINIMUM_LENGTH = 4;
+
+    /**
+     * The points, in no particular order.
+     */
+    private final List<Point> points = new ArrayList<>();
+
+    /**
+     * The index in {@link #points} of every point, by {@link Point#key()}.
+     */
+    private final Map<Integer, Integer> indices = new HashMap<>();
+
+    /**
+     * The segments of 4 or more points, by the key of their line.
+     */
+    private final Map<Long, LineSegment> lines = new HashMap<>();
+
+    /**
+     * The segments, `null` after a change until they are asked for.
+     */
+    private LineSegment[] cachedSegments = new LineSegment[0];
+
+    /**
+     * The other points by their slope to the point of the current change.
+     */
+    private final SlopeBuckets buckets = new SlopeBuckets();
+
+    /**
+     * Constructor of an empty IncrementalCollinearPoints.
+     */
+    public IncrementalCollinearPoints() {
+    }
+
+    /**
+     * Add the point and update the segments through it.
+     */
+    public void add(Point p) {
+        if (p == null) {
+            throw new IllegalArgumentException("The point can't be null.");
+        }
+        if (indices.containsKey(p.key())) {
+            throw new IllegalArgumentException("Points can't repeat.");
+        }
+
+        bucket(p, -1);
+        for (int k = 0; k < buckets.size(); k++) {
+            if (buckets.count(k) >= MINIMUM_LENGTH - 1) {
+                Point min = points.get(buckets.min(k));
+                Point max = points.get(buckets.max(k));
+                lines.put(p.lineKey(min), new LineSegment(p.compareTo(min) < 0 ? p : min,
+                        p.compareTo(max) > 0 ? p : max));
+            }
+        }
+
+        indices.put(p.key(), points.size());
+        points.add(p);
+        cachedSegments = null;
+    }
+
+    /**
+     * Remove the point and update the segments through it.
+     */
+    public void remove(Point p) {
+        if (p == null) {
+            throw new IllegalArgumentException("The point can't be null.");
+        }
+        Integer index = indices.get(p.key());
+        if (index == null) {
+            throw new IllegalArgumentException("The point isn't there.");
+        }
+
+        bucket(p, index);
+        for (int k = 0; k < buckets.size(); k++) {
+            if (buckets.count(k) >= MINIMUM_LENGTH) {
+                Point min = points.get(buckets.min(k));
+                lines.put(p.lineKey(min), new LineSegment(min, points.get(buckets.max(k))));
+            } else if (buckets.count(k) == MINIMUM_LENGTH - 1) {
+                lines.remove(p.lineKey(points.get(buckets.min(k))));
+            }
+        }
+
+        // move the last point into the hole
+        int lastIndex = points.size() - 1;
+        Point last = points.remove(lastIndex);
+        indices.remove(p.key());
+        if (index != lastIndex) {
+            points.set(index, last);
+            indices.put(last.key(), index);
+        }
+        cachedSegments = null;
+    }
+
+    /**
+     * Bucket the other points by their slope to the point.
+     *
+     * @param skip the index of the point itself, -1 if it isn't there.
+     */
+    private void bucket(Point p, int skip) {
+        buckets.reset(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            if (i != skip) {
+                buckets.add(p, points.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * @return the number of points.
+     */
+    public int size() {
+        return points.size();
+    }
+
+    /**
+     * @return the number of segments.
+     */
+    public int numberOfSegments() {
+        return lines.size();
+    }
+
+    /**
+     * @return the line segments.
+     */
+    public LineSegment[] segments() {
+        if (cachedSegments == null) {
+            cachedSegments = lines.values().toArray(new LineSegment[0]);
+        }
+        return cachedSegments.clone();
+    }
+
+    /**
+     * Adds the points of a file one by one, then removes every other one, printing
+     * the number of segments after each half.
+     */
+    public static void main(String[] args) {
+        TokenReader in = new TokenReader(Path.of(args[0]));
+        int n = in.readInt();
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            int x = in.readInt();
+            int y = in.readInt();
+            points[i] = new Point(x, y);
+        }
+
+        IncrementalCollinearPoints collinear = new IncrementalCollinearPoints();
+        for (Point p : points) {
+            collinear.add(p);
+        }
+        StdOut.println(collinear.numberOfSegments() + " segments through " + collinear.size() + " points");
+        for (int i = 0; i < n; i += 2) {
+            collinear.remove(points[i]);
+        }
+        StdOut.println(collinear.numberOfSegments() + " segments through " + collinear.size() + " points");
+        for (LineSegment segment : collinear.segments()) {
+            StdOut.println(segment);
+        }
+    }
+}
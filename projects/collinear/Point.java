@@ -113,13 +113,110 @@ public class Point implements Comparable<Point> {
         return new SlopeComparator();
     }
 
+    /**
+     * Compares slopes exactly, by cross-multiplying instead of dividing, and without
+     * boxing, in the same order as slopeTo().
+     */
     private class SlopeComparator implements Comparator<Point> {
         @Override
         public int compare(Point o1, Point o2) {
-            Double slope1 = slopeTo(o1);
-            Double slope2 = slopeTo(o2);
-            return slope1.compareTo(slope2);
+            return compareSlopes(o1.y - y, o1.x - x, o2.y - y, o2.x - x);
+        }
+    }
+
+    /**
+     * Compares the slopes dy1 / dx1 and dy2 / dx2, with the point itself, (0, 0),
+     * before every slope and vertical lines after every slope.
+     */
+    private static int compareSlopes(int dy1, int dx1, int dy2, int dx2) {
+        int kind1 = kindOf(dy1, dx1);
+        int kind2 = kindOf(dy2, dx2);
+        if (kind1 != 0 || kind2 != 0) {
+            return Integer.compare(kind1, kind2);
+        }
+
+        if (dx1 < 0) {
+            dx1 = -dx1;
+            dy1 = -dy1;
+        }
+        if (dx2 < 0) {
+            dx2 = -dx2;
+            dy2 = -dy2;
+        }
+        return Long.compare((long) dy1 * dx2, (long) dy2 * dx1);
+    }
+
+    /**
+     * @return -1 for the point itself, 1 for a vertical line, 0 for any other slope.
+     */
+    private static int kindOf(int dy, int dx) {
+        if (dx != 0) {
+            return 0;
+        }
+        return dy == 0 ? -1 : 1;
+    }
+
+    /**
+     * Returns an exact key of the slope between this point and the specified point:
+     * two keys are equal if and only if the slopes are. The key packs the slope as a
+     * reduced fraction dy / dx with dx > 0, vertical lines as 1 / 0, horizontal lines
+     * as 0 / 1 and the point itself as 0 / 0, into 16 bits each. Keys don't order the
+     * slopes, they only group them.
+     *
+     * @param that the other point
+     * @return the slope key
+     */
+    int slopeKey(Point that) {
+        int dx = that.x - this.x;
+        int dy = that.y - this.y;
+        if (dx < 0) {
+            dx = -dx;
+            dy = -dy;
+        }
+
+        if (dx == 0) {
+            dy = dy == 0 ? 0 : 1;
+        } else if (dy == 0) {
+            dx = 1;
+        } else {
+            int gcd = gcd(Math.abs(dy), dx);
+            dy /= gcd;
+            dx /= gcd;
+        }
+        return (dy + COORDINATE_UPPER_LIMIT + 1) << 16 | dx;
+    }
+
+    /**
+     * Returns a key of the line through this point and the specified point, the same
+     * for any two distinct points of the line. It packs the {@link #slopeKey(Point)}
+     * and the offset dx * y - dy * x of the reduced slope, which is the same for
+     * every point of the line and fits in 32 bits.
+     *
+     * @param that the other point, not this point
+     * @return the line key
+     */
+    long lineKey(Point that) {
+        int slope = slopeKey(that);
+        int dy = (slope >>> 16) - COORDINATE_UPPER_LIMIT - 1;
+        int dx = slope & 0xFFFF;
+        int offset = dx * y - dy * x;
+        return (long) slope << 32 | (offset & 0xFFFFFFFFL);
+    }
+
+    /**
+     * @return the coordinates packed as y * 2^15 + x, in the same order as compareTo().
+     */
+    int key() {
+        return y << 15 | x;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int r = a % b;
+            a = b;
+            b = r;
         }
+        return a;
     }
 
     /**
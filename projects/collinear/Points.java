@@ -0,0 +1,49 @@
+package collinear;
+
+import java.util.Arrays;
+
+/**
+ * Validation of the input of the collinear detectors.
+ *
+ * @author huangkai
+ */
+final class Points {
+    private Points() {
+    }
+
+    /**
+     * Checks the points and sorts them, in O(n log n).
+     * <p>
+     * One pass checks for `null` and packs every {@link Point#key()}, which is in the
+     * order of compareTo(), with the index of its point into a long. A primitive sort
+     * of those brings repeated points next to each other and gives the natural order
+     * the detectors need anyway.
+     *
+     * @return a copy of the points in natural order.
+     * @throws IllegalArgumentException if the array or a point is `null`, or a point repeats.
+     */
+    static Point[] sortedCopy(Point[] points) {
+        if (points == null) {
+            throw new IllegalArgumentException("The points can't be null.");
+        }
+
+        int length = points.length;
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            if (points[i] == null) {
+                throw new IllegalArgumentException("Every point can't be null.");
+            }
+            keys[i] = (long) points[i].key() << 32 | i;
+        }
+        Arrays.sort(keys);
+
+        Point[] sortedPoints = new Point[length];
+        for (int i = 0; i < length; i++) {
+            if (i > 0 && keys[i - 1] >>> 32 == keys[i] >>> 32) {
+                throw new IllegalArgumentException("Points can't repeat.");
+            }
+            sortedPoints[i] = points[(int) keys[i]];
+        }
+        return sortedPoints;
+    }
+}
@@ -0,0 +1,170 @@
+package collinear;
+
+import java.util.Arrays;
+
+/**
+ * Buckets points by their slope to an origin, in an open-addressing table of
+ * primitive arrays, for {@link HashCollinearPoints} and
+ * {@link IncrementalCollinearPoints}.
+ * <p>
+ * A bucket only keeps the number of points and the smallest and largest of them,
+ * which are all a segment needs. The buckets are keyed by the bits of
+ * {@link Point#slopeTo(Point)}, which are exact: with coordinates up to 32767, two
+ * different slopes differ by far more than the rounding of a division, and a
+ * correctly rounded division gives the same double for equal fractions. That
+ * avoids the gcd of {@link Point#slopeKey(Point)}, which costs ten times as much as
+ * the division.
+ * <p>
+ * The table is reused for every origin: a slot belongs to the current origin only
+ * if it is stamped with it, so nothing is cleared or allocated between origins.
+ *
+ * @author huangkai
+ */
+final class SlopeBuckets {
+    /**
+     * The starting capacity of the table, a power of two.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The slope bits of the slots, a power of two of them, at most half full.
+     */
+    private long[] keys = new long[DEFAULT_CAPACITY];
+
+    /**
+     * The origin a slot belongs to, so slots are never cleared.
+     */
+    private int[] stamps = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The current origin.
+     */
+    private int stamp;
+
+    /**
+     * The number of points in the slots.
+     */
+    private int[] counts = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The index of the smallest point in the slots.
+     */
+    private int[] mins = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The index of the largest point in the slots.
+     */
+    private int[] maxes = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The {@link Point#key()} of the smallest point in the slots.
+     */
+    private int[] minKeys = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The {@link Point#key()} of the largest point in the slots.
+     */
+    private int[] maxKeys = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The slots used by the current origin, in the order they were taken.
+     */
+    private int[] used = new int[DEFAULT_CAPACITY];
+
+    /**
+     * The number of slots used by the current origin.
+     */
+    private int usedCount;
+
+    /**
+     * Empty every bucket, for a new origin and at most n points.
+     */
+    void reset(int n) {
+        if (n * 2 > keys.length) {
+            int capacity = Integer.highestOneBit(n * 2 - 1) * 2;
+            keys = new long[capacity];
+            stamps = new int[capacity];
+            counts = new int[capacity];
+            mins = new int[capacity];
+            maxes = new int[capacity];
+            minKeys = new int[capacity];
+            maxKeys = new int[capacity];
+            used = new int[capacity];
+        }
+
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        usedCount = 0;
+    }
+
+    /**
+     * Add the point to the bucket of its slope to the origin.
+     *
+     * @param index the index of the point, which {@link #min(int)} and {@link #max(int)} return.
+     */
+    void add(Point origin, Point q, int index) {
+        int order = q.key();
+        long key = Double.doubleToRawLongBits(origin.slopeTo(q));
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (stamps[slot] == stamp && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (stamps[slot] != stamp) {
+            stamps[slot] = stamp;
+            keys[slot] = key;
+            counts[slot] = 0;
+            mins[slot] = index;
+            maxes[slot] = index;
+            minKeys[slot] = order;
+            maxKeys[slot] = order;
+            used[usedCount++] = slot;
+        } else if (order < minKeys[slot]) {
+            mins[slot] = index;
+            minKeys[slot] = order;
+        } else if (order > maxKeys[slot]) {
+            maxes[slot] = index;
+            maxKeys[slot] = order;
+        }
+        counts[slot]++;
+    }
+
+    /**
+     * @return the number of buckets of the current origin.
+     */
+    int size() {
+        return usedCount;
+    }
+
+    /**
+     * @return the number of points in the k-th bucket.
+     */
+    int count(int k) {
+        return counts[used[k]];
+    }
+
+    /**
+     * @return the index of the smallest point in the k-th bucket.
+     */
+    int min(int k) {
+        return mins[used[k]];
+    }
+
+    /**
+     * @return the index of the largest point in the k-th bucket.
+     */
+    int max(int k) {
+        return maxes[used[k]];
+    }
+
+    /**
+     * Mixes all the bits, the low bits of simple slopes like 0.5 or 2 are all zero.
+     */
+    private static int hash(long key) {
+        long h = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33));
+    }
+}
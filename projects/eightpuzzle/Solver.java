@@ -1,9 +1,10 @@
 package eightpuzzle;
 
-import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.MinPQ;
 import edu.princeton.cs.algs4.StdOut;
+import fastio.TokenReader;
 
+import java.nio.file.Path;
 import java.util.LinkedList;
 
 /**
@@ -130,7 +131,7 @@ public class Solver {
     public static void main(String[] args) {
 
         // Create initial board from file.
-        In in = new In(args[0]);
+        TokenReader in = new TokenReader(Path.of(args[0]));
         int n = in.readInt();
         int[][] tiles = new int[n][n];
         for (int i = 0; i < n; i++)
@@ -0,0 +1,66 @@
+package fastio;
+
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.Arrays;
+
+/**
+ * Chooses k tokens of a {@link TokenReader} uniformly at random, in one pass.
+ * <p>
+ * The tokens are a reservoir (Li's Algorithm L), so only k tokens are kept in
+ * memory however long the input is. Algorithm L draws how many tokens to skip
+ * before the next replacement, so the skipped tokens are stepped over byte by byte
+ * without a random draw and without becoming a `String`.
+ *
+ * @author huangkai
+ */
+public final class TokenSampler {
+    private TokenSampler() {
+    }
+
+    /**
+     * @return `k` tokens chosen uniformly at random, in no particular order, or all
+     * the tokens if there are fewer.
+     */
+    public static String[] sample(TokenReader tokens, int k) {
+        if (tokens == null) {
+            throw new IllegalArgumentException("The tokens can't be null.");
+        }
+        if (k < 0) {
+            throw new IllegalArgumentException("`k` can't be negative.");
+        }
+
+        String[] reservoir = new String[k];
+        for (int i = 0; i < k; i++) {
+            if (tokens.isEmpty()) {
+                return Arrays.copyOf(reservoir, i);
+            }
+            reservoir[i] = tokens.readString();
+        }
+        if (k == 0) {
+            return reservoir;
+        }
+
+        double w = Math.exp(Math.log(random()) / k);
+        while (true) {
+            long skip = (long) Math.floor(Math.log(random()) / Math.log1p(-w));
+            for (long i = 0; i < skip; i++) {
+                if (!tokens.skip()) {
+                    return reservoir;
+                }
+            }
+            if (tokens.isEmpty()) {
+                return reservoir;
+            }
+            reservoir[StdRandom.uniformInt(k)] = tokens.readString();
+            w *= Math.exp(Math.log(random()) / k);
+        }
+    }
+
+    /**
+     * @return a uniform random number in (0, 1], so its logarithm is finite.
+     */
+    public static double random() {
+        return 1.0 - StdRandom.uniformDouble();
+    }
+}
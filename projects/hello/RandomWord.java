@@ -1,21 +1,124 @@
 package hello;
 
-import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.MinPQ;
 import edu.princeton.cs.algs4.StdOut;
 import edu.princeton.cs.algs4.StdRandom;
+import fastio.TokenReader;
+import fastio.TokenSampler;
 
 /**
+ * Prints k champions of the words of standard input, chosen at random in one pass.
+ * <p>
+ * Every word is as likely to be a champion by default. With `weighted`, a token
+ * `word,weight` is chosen in proportion to its weight, a token without a weight
+ * has weight 1. The champions are a reservoir, so only k words are kept in
+ * memory. Both samplers draw how much of the input to jump over before the next
+ * champion changes, Li's Algorithm L in {@link TokenSampler} and Efraimidis and
+ * Spirakis' A-ExpJ, so the words in between cost no random draw and never become
+ * a `String`.
+ *
  * @author huangkai
  */
 public class RandomWord {
-    public static void main(String[] args) {
-        String champion = "";
-        for (int i = 1; !StdIn.isEmpty(); i++) {
-            String word = StdIn.readString();
-            if (StdRandom.bernoulli(1.0 / i)) {
-                champion = word;
+    /**
+     * The separator of a word and its weight.
+     */
+    private static final char SEPARATOR = ',';
+
+    /**
+     * A weighted champion, ordered by its key.
+     */
+    private static class Champion implements Comparable<Champion> {
+        /**
+         * The logarithm of the key u^(1/w) of A-Res, so small weights don't underflow.
+         */
+        private final double key;
+
+        private final String word;
+
+        Champion(double key, String word) {
+            this.key = key;
+            this.word = word;
+        }
+
+        @Override
+        public int compareTo(Champion that) {
+            return Double.compare(key, that.key);
+        }
+    }
+
+    /**
+     * @return up to `k` words chosen without replacement in proportion to their
+     * weights, in no particular order.
+     */
+    private static String[] sampleWeighted(TokenReader words, int k) {
+        MinPQ<Champion> reservoir = new MinPQ<>(k + 1);
+        while (reservoir.size() < k && !words.isEmpty()) {
+            String word = words.readString(SEPARATOR);
+            double weight = weight(words);
+            if (weight > 0) {
+                reservoir.insert(new Champion(Math.log(TokenSampler.random()) / weight, word));
+            }
+        }
+
+        if (reservoir.size() == k && k > 0) {
+            // the total weight to jump over before the next word enters the reservoir
+            double jump = Math.log(TokenSampler.random()) / reservoir.min().key;
+            while (words.readField(SEPARATOR)) {
+                double weight = weight(words);
+                jump -= weight;
+                if (weight == 0 || jump > 0) {
+                    continue;
+                }
+
+                // the key of the entering word is drawn above the smallest key
+                double threshold = Math.exp(weight * reservoir.min().key);
+                double u = threshold + (1 - threshold) * TokenSampler.random();
+                reservoir.delMin();
+                reservoir.insert(new Champion(Math.log(u) / weight, words.field()));
+                jump = Math.log(TokenSampler.random()) / reservoir.min().key;
             }
         }
-        StdOut.println(champion);
+
+        String[] champions = new String[reservoir.size()];
+        for (int i = 0; i < champions.length; i++) {
+            champions[i] = reservoir.delMin().word;
+        }
+        return champions;
+    }
+
+    /**
+     * @return the weight after a word, 1 when there is none.
+     */
+    private static double weight(TokenReader words) {
+        if (!words.hasField()) {
+            return 1;
+        }
+        double weight = words.readDouble();
+        if (!(weight >= 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("A weight must be finite and non-negative.");
+        }
+        return weight;
+    }
+
+    /**
+     * Usage: RandomWord [k [weighted]]
+     * <p>
+     * For example, `RandomWord 1 weighted < long-weights.txt` prints `heads` almost
+     * always; its weights are longer than a short number token.
+     */
+    public static void main(String[] args) {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        if (k < 0) {
+            throw new IllegalArgumentException("`k` can't be negative.");
+        }
+        boolean weighted = args.length > 1 && "weighted".equals(args[1]);
+
+        TokenReader words = new TokenReader();
+        String[] champions = weighted ? sampleWeighted(words, k) : TokenSampler.sample(words, k);
+        StdRandom.shuffle(champions);
+        for (String champion : champions) {
+            StdOut.println(champion);
+        }
     }
 }
@@ -0,0 +1,163 @@
+package percolation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Site percolation on an n-by-n-by-n cubic lattice with 6 neighbours per site.
+ * <p>
+ * The system percolates when an open path connects the first layer to the last layer.
+ * It runs on the same union-find engine as {@link ResettablePercolation}, and
+ * {@link #reset()} blocks every site again without allocating.
+ *
+ * @author huangkai
+ */
+public class CubicPercolation {
+    /**
+     * The union-find and site state of the lattice
+     */
+    private final PercolationEngine engine;
+
+    /**
+     * The width of the lattice
+     */
+    private final int width;
+
+    /**
+     * The number of sites of one layer
+     */
+    private final int layerSites;
+
+    /**
+     * The number of sites of the lattice
+     */
+    private final int sites;
+
+    /**
+     * creates n-by-n-by-n lattice, with all sites initially blocked
+     */
+    public CubicPercolation(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("`n` must be positive");
+        }
+        if ((long) n * n * n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("`n` is too large");
+        }
+
+        width = n;
+        layerSites = n * n;
+        sites = n * n * n;
+        engine = new PercolationEngine(sites);
+    }
+
+    /**
+     * blocks every site again, keeping the arrays
+     */
+    public void reset() {
+        engine.reset();
+    }
+
+    /**
+     * @return the width of the lattice
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * opens the site (layer, row, col) if it isn't open already
+     */
+    public void open(int layer, int row, int col) {
+        openSite(getIndex(layer, row, col));
+    }
+
+    /**
+     * opens the site with the 0-based 1D index `index` if it isn't open already
+     */
+    void openSite(int index) {
+        if (engine.open(index, index < layerSites, index >= sites - layerSites)) {
+            int inLayer = index % layerSites;
+            int col = inLayer % width;
+            if (index >= layerSites) {
+                engine.connect(index, index - layerSites);
+            }
+            if (index < sites - layerSites) {
+                engine.connect(index, index + layerSites);
+            }
+            if (inLayer >= width) {
+                engine.connect(index, index - width);
+            }
+            if (inLayer < layerSites - width) {
+                engine.connect(index, index + width);
+            }
+            if (col > 0) {
+                engine.connect(index, index - 1);
+            }
+            if (col < width - 1) {
+                engine.connect(index, index + 1);
+            }
+        }
+    }
+
+    /**
+     * @return is the site (layer, row, col) open?
+     */
+    public boolean isOpen(int layer, int row, int col) {
+        return engine.isOpen(getIndex(layer, row, col));
+    }
+
+    /**
+     * @return is the site (layer, row, col) connected to the first layer?
+     */
+    public boolean isFull(int layer, int row, int col) {
+        return engine.isFull(getIndex(layer, row, col));
+    }
+
+    /**
+     * @return the number of open sites
+     */
+    public int numberOfOpenSites() {
+        return engine.numberOfOpenSites();
+    }
+
+    /**
+     * @return does the system percolate?
+     */
+    public boolean percolates() {
+        return engine.percolates();
+    }
+
+    /**
+     * Usage: CubicPercolation n trials
+     * <p>
+     * Prints the mean fraction of open sites at which the lattice percolates.
+     */
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int trials = Integer.parseInt(args[1]);
+        SplittableRandom random = new SplittableRandom();
+        CubicPercolation percolation = new CubicPercolation(n);
+        RunningStats stats = new RunningStats();
+        for (int i = 0; i < trials; i++) {
+            percolation.reset();
+            while (!percolation.percolates()) {
+                percolation.openSite(random.nextInt(percolation.sites));
+            }
+            stats.add(percolation.numberOfOpenSites() * 1.0 / percolation.sites);
+        }
+        System.out.println(stats);
+    }
+
+    /**
+     * @param layer base-1 index of layer
+     * @param row   base-1 index of row
+     * @param col   base-1 index of col
+     * @return the 0-based 1D index
+     */
+    private int getIndex(int layer, int row, int col) {
+        if (layer <= 0 || layer > width || row <= 0 || row > width || col <= 0 || col > width) {
+            throw new IllegalArgumentException("The given site (layer, row, col) must in the n-by-n-by-n lattice");
+        }
+
+        return (layer - 1) * layerSites + (row - 1) * width + (col - 1);
+    }
+}
@@ -0,0 +1,83 @@
+package percolation;
+
+import java.util.Arrays;
+
+/**
+ * Union-find on primitive arrays, with union by rank and path halving.
+ * <p>
+ * Arguments are not validated, an index out of [0, n) fails with whatever the
+ * array access throws. The arrays are encoded so that the all-zero array is the
+ * initial state, {@link #reset()} makes every element a singleton again without allocating.
+ *
+ * @author huangkai
+ */
+public final class PathHalvingUF implements UnionFind {
+    /**
+     * The parent links, `parent[i] == 0` means `i` is a root, otherwise the parent is `parent[i] - 1`
+     */
+    private final int[] parent;
+
+    /**
+     * The ranks of the roots, at most log2(n) so a byte is enough
+     */
+    private final byte[] rank;
+
+    /**
+     * creates `n` singleton sets
+     */
+    public PathHalvingUF(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("`n` can't be negative");
+        }
+
+        parent = new int[n];
+        rank = new byte[n];
+    }
+
+    /**
+     * makes every element a singleton set again
+     */
+    public void reset() {
+        Arrays.fill(parent, 0);
+        Arrays.fill(rank, (byte) 0);
+    }
+
+    @Override
+    public int find(int p) {
+        while (parent[p] != 0) {
+            int grand = parent[parent[p] - 1];
+            if (grand != 0) {
+                parent[p] = grand;
+            }
+            p = parent[p] - 1;
+        }
+        return p;
+    }
+
+    @Override
+    public void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP != rootQ) {
+            link(rootP, rootQ);
+        }
+    }
+
+    /**
+     * links two different roots
+     *
+     * @return the root of the merged set
+     */
+    int link(int rootP, int rootQ) {
+        if (rank[rootP] < rank[rootQ]) {
+            parent[rootP] = rootQ + 1;
+            return rootQ;
+        }
+
+        parent[rootQ] = rootP + 1;
+        if (rank[rootP] == rank[rootQ]) {
+            rank[rootP]++;
+        }
+        return rootP;
+    }
+}
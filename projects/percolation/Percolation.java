@@ -1,7 +1,8 @@
 package percolation;
 
 import edu.princeton.cs.algs4.StdOut;
-import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+
+import java.util.function.IntFunction;
 
 /**
  * @author huangkai
@@ -10,12 +11,12 @@ public class Percolation {
     /**
      * The uf with virtual top site and virtual bottom site
      */
-    private final WeightedQuickUnionUF uf1;
+    private final UnionFind uf1;
 
     /**
      * The uf with virtual top site
      */
-    private final WeightedQuickUnionUF uf2;
+    private final UnionFind uf2;
 
     /**
      * The width of the grid
@@ -23,9 +24,9 @@ public class Percolation {
     private final int width;
 
     /**
-     * The sites of grid, 1 represents `opened`, 0 represents `blocked`
+     * The sites of grid, a set bit represents `opened`, a cleared bit represents `blocked`
      */
-    private final byte[] sites;
+    private final SiteBits sites;
 
     /**
      * The number of open sites
@@ -46,6 +47,16 @@ public class Percolation {
      * creates n-by-n grid, with all sites initially blocked
      */
     public Percolation(int n) {
+        this(n, PathHalvingUF::new);
+    }
+
+    /**
+     * creates n-by-n grid, with all sites initially blocked
+     *
+     * @param n         the width of the grid
+     * @param ufFactory creates the union-find of the given number of elements
+     */
+    public Percolation(int n, IntFunction<UnionFind> ufFactory) {
         if (n <= 0) {
             throw new IllegalArgumentException("`n` must be positive");
         }
@@ -53,11 +64,11 @@ public class Percolation {
         width = n;
         topIndex = 0;
         bottomIndex = n * n + 1;
-        uf1 = new WeightedQuickUnionUF(n * n + 2);
-        uf2 = new WeightedQuickUnionUF(n * n + 1);
-        sites = new byte[n * n + 2];
-        sites[topIndex] = 1;
-        sites[bottomIndex] = 1;
+        uf1 = ufFactory.apply(n * n + 2);
+        uf2 = ufFactory.apply(n * n + 1);
+        sites = new SiteBits(n * n + 2);
+        sites.set(topIndex);
+        sites.set(bottomIndex);
     }
 
     /**
@@ -66,7 +77,7 @@ public class Percolation {
     public void open(int row, int col) {
         if (!isOpen(row, col)) {
             int index = getIndex(row, col);
-            sites[index] = 1;
+            sites.set(index);
             openedCount++;
 
             if (row == 1) {
@@ -92,7 +103,7 @@ public class Percolation {
      */
     public boolean isOpen(int row, int col) {
         int index = getIndex(row, col);
-        return sites[index] == 1;
+        return sites.get(index);
     }
 
     /**
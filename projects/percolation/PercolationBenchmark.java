@@ -0,0 +1,111 @@
+package percolation;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Single-threaded micro benchmarks of percolation.
+ * <p>
+ * `trials` runs every trial loop once to warm up and once to measure, and reports the
+ * throughput and the bytes allocated by the current thread per trial.
+ * `uf` runs one trial of `Percolation` with each union-find backend and reports
+ * the cost of `open()` and `percolates()`.
+ *
+ * @author huangkai
+ */
+public class PercolationBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * One trial of a benchmark case, returns the number of open sites.
+     */
+    private interface Trial {
+        int run(SplittableRandom random);
+    }
+
+    /**
+     * A new `Percolation` for every trial.
+     */
+    private static int freshGrid(int n, SplittableRandom random) {
+        Percolation percolation = new Percolation(n);
+        while (!percolation.percolates()) {
+            percolation.open(random.nextInt(n) + 1, random.nextInt(n) + 1);
+        }
+        return percolation.numberOfOpenSites();
+    }
+
+    private static void measure(String name, Trial trial, int n, int trials) {
+        long threadId = Thread.currentThread().getId();
+        for (int round = 0; round < 2; round++) {
+            SplittableRandom random = new SplittableRandom(round);
+            long opened = 0;
+            long bytes = THREADS.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < trials; i++) {
+                opened += trial.run(random);
+            }
+            long elapsed = System.nanoTime() - start;
+            bytes = THREADS.getThreadAllocatedBytes(threadId) - bytes;
+            if (round == 1) {
+                System.out.printf("%-12s n = %5d  %10.2f trials/s  %14d bytes/trial  (%.4f)%n",
+                        name, n, trials * 1e9 / elapsed, bytes / trials, opened * 1.0 / trials / n / n);
+            }
+        }
+    }
+
+    /**
+     * One trial of `Percolation` on the given union-find backend.
+     */
+    private static void measureUnionFind(String name, IntFunction<UnionFind> ufFactory, int n) {
+        SplittableRandom random = new SplittableRandom(n);
+        Percolation percolation = new Percolation(n, ufFactory);
+        long opens = 0;
+        long start = System.nanoTime();
+        while (!percolation.percolates()) {
+            percolation.open(random.nextInt(n) + 1, random.nextInt(n) + 1);
+            opens++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int calls = 10_000_000;
+        int percolated = 0;
+        long percolatesStart = System.nanoTime();
+        for (int i = 0; i < calls; i++) {
+            if (percolation.percolates()) {
+                percolated++;
+            }
+        }
+        long percolatesElapsed = System.nanoTime() - percolatesStart;
+        System.out.printf("%-12s n = %5d  %8.1f ns/open()  %6.1f ns/percolates()  (%d)%n",
+                name, n, elapsed * 1.0 / opens, percolatesElapsed * 1.0 / calls, percolated);
+    }
+
+    /**
+     * Usage: PercolationBenchmark trials trials n1 [n2 ...]
+     * <p>
+     * Usage: PercolationBenchmark uf n1 [n2 ...]
+     */
+    public static void main(String[] args) {
+        if ("uf".equals(args[0])) {
+            measureUnionFind("warm-up", UnionFind::weightedQuickUnion, 200);
+            measureUnionFind("warm-up", PathHalvingUF::new, 200);
+            for (int i = 1; i < args.length; i++) {
+                int n = Integer.parseInt(args[i]);
+                measureUnionFind("algs4", UnionFind::weightedQuickUnion, n);
+                measureUnionFind("path-halving", PathHalvingUF::new, n);
+            }
+            return;
+        }
+
+        int trials = Integer.parseInt(args[1]);
+        for (int i = 2; i < args.length; i++) {
+            int n = Integer.parseInt(args[i]);
+            PercolationTrial reused = new PercolationTrial(n);
+            measure("fresh", random -> freshGrid(n, random), n, trials);
+            measure("random", random -> reused.run(PercolationTrial.Mode.RANDOM_SITES, random), n, trials);
+            measure("permutation", random -> reused.run(PercolationTrial.Mode.PERMUTATION, random), n, trials);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package percolation;
+
+/**
+ * The lattice-independent part of a resettable percolation system.
+ * <p>
+ * A single union-find over the sites, plus one bit per site for open, and one bit
+ * per root for whether its component touches the top and the bottom boundary.
+ * The lattice decides which sites are on a boundary and which are neighbours.
+ *
+ * @author huangkai
+ */
+final class PercolationEngine {
+    /**
+     * The uf of the sites
+     */
+    private final PathHalvingUF uf;
+
+    /**
+     * The open sites
+     */
+    private final SiteBits open;
+
+    /**
+     * The roots whose component contains a site of the top boundary
+     */
+    private final SiteBits top;
+
+    /**
+     * The roots whose component contains a site of the bottom boundary
+     */
+    private final SiteBits bottom;
+
+    /**
+     * The number of open sites
+     */
+    private int openedCount = 0;
+
+    /**
+     * Whether some component touches both the top and the bottom boundary
+     */
+    private boolean percolated = false;
+
+    /**
+     * creates a system of `sites` blocked sites
+     */
+    PercolationEngine(int sites) {
+        uf = new PathHalvingUF(sites);
+        open = new SiteBits(sites);
+        top = new SiteBits(sites);
+        bottom = new SiteBits(sites);
+    }
+
+    /**
+     * blocks every site again, keeping the arrays
+     */
+    void reset() {
+        uf.reset();
+        open.clear();
+        top.clear();
+        bottom.clear();
+        openedCount = 0;
+        percolated = false;
+    }
+
+    /**
+     * opens the site if it isn't open already, the caller then connects it to its neighbours
+     *
+     * @return whether the site was blocked
+     */
+    boolean open(int site, boolean onTop, boolean onBottom) {
+        if (open.get(site)) {
+            return false;
+        }
+
+        open.set(site);
+        openedCount++;
+        if (onTop) {
+            top.set(site);
+        }
+        if (onBottom) {
+            bottom.set(site);
+        }
+        if (onTop && onBottom) {
+            percolated = true;
+        }
+        return true;
+    }
+
+    /**
+     * union the open site `p` with the site `q` if `q` is open,
+     * the new root gets the boundary bits of both roots
+     */
+    void connect(int p, int q) {
+        if (!open.get(q)) {
+            return;
+        }
+
+        int rootP = uf.find(p);
+        int rootQ = uf.find(q);
+        if (rootP == rootQ) {
+            return;
+        }
+
+        int root = uf.link(rootP, rootQ);
+        boolean onTop = top.get(rootP) || top.get(rootQ);
+        boolean onBottom = bottom.get(rootP) || bottom.get(rootQ);
+        if (onTop) {
+            top.set(root);
+        }
+        if (onBottom) {
+            bottom.set(root);
+        }
+        if (onTop && onBottom) {
+            percolated = true;
+        }
+    }
+
+    /**
+     * @return is the site open?
+     */
+    boolean isOpen(int site) {
+        return open.get(site);
+    }
+
+    /**
+     * @return is the site connected to the top boundary through open sites?
+     */
+    boolean isFull(int site) {
+        return open.get(site) && top.get(uf.find(site));
+    }
+
+    /**
+     * @return the number of open sites
+     */
+    int numberOfOpenSites() {
+        return openedCount;
+    }
+
+    /**
+     * @return does the system percolate?
+     */
+    boolean percolates() {
+        return percolated;
+    }
+}
@@ -1,14 +1,50 @@
 package percolation;
 
 import edu.princeton.cs.algs4.StdRandom;
-import edu.princeton.cs.algs4.StdStats;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * @author huangkai
  */
 public class PercolationStats {
-    private final double[] samples;
-    private static final double CONFIDENCE_95 = 1.96;
+    /**
+     * The statistics of the percolation thresholds of all trials
+     */
+    private final RunningStats stats;
+
+    /**
+     * The maximum number of trials a single fork-join task runs sequentially.
+     * <p>
+     * The task tree only depends on this value and the number of trials, and the
+     * results are merged along the tree, so the random stream of every trial and
+     * the merged statistics are the same for any parallelism.
+     */
+    private static final int SEQUENTIAL_TRIALS = 8;
+
+    /**
+     * The minimum number of trials before an adaptive run trusts its confidence interval.
+     */
+    private static final int MIN_ADAPTIVE_TRIALS = 30;
+
+    /**
+     * Watches a running experiment.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Called after every batch of trials with the statistics of all trials finished so far.
+         * <p>
+         * Calls come from the worker threads one at a time, so they should return quickly.
+         *
+         * @param estimate a snapshot of the statistics so far
+         * @return whether to keep running, `false` stops the experiment after the running batches
+         */
+        boolean onProgress(RunningStats estimate);
+    }
 
     /**
      * perform independent trials on an n-by-n grid
@@ -17,55 +53,260 @@ public class PercolationStats {
      * @param trials the trial times
      */
     public PercolationStats(int n, int trials) {
+        this(n, trials, StdRandom.uniformLong(Long.MAX_VALUE), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * perform independent trials on an n-by-n grid in parallel, drawing random (row, col) pairs
+     *
+     * @param n      the width of the grid
+     * @param trials the trial times
+     * @param seed   the seed of the root random stream, the same seed gives the same results
+     *               no matter how many threads the pool has
+     * @param pool   the pool to run the trials on
+     */
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool) {
+        this(n, trials, seed, pool, PercolationTrial.Mode.RANDOM_SITES);
+    }
+
+    /**
+     * perform independent trials on an n-by-n grid in parallel
+     *
+     * @param n      the width of the grid
+     * @param trials the trial times
+     * @param seed   the seed of the root random stream, the same seed gives the same results
+     *               no matter how many threads the pool has
+     * @param pool   the pool to run the trials on
+     * @param mode   how each trial chooses the next site to open
+     */
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool, PercolationTrial.Mode mode) {
+        this(n, trials, seed, pool, mode, null);
+    }
+
+    /**
+     * perform independent trials on an n-by-n grid in parallel, reporting the progress to `listener`
+     *
+     * @param n        the width of the grid
+     * @param trials   the maximum trial times
+     * @param seed     the seed of the root random stream, the same seed gives the same results
+     *                 no matter how many threads the pool has, as long as the run isn't stopped
+     * @param pool     the pool to run the trials on
+     * @param mode     how each trial chooses the next site to open
+     * @param listener watches the progress and can stop the run early, may be null
+     */
+    public PercolationStats(int n, int trials, long seed, ForkJoinPool pool, PercolationTrial.Mode mode,
+                            Listener listener) {
         if (n <= 0 || trials <= 0) {
             throw new IllegalArgumentException("`n` and `trials` must be positive");
         }
+        if (pool == null || mode == null) {
+            throw new IllegalArgumentException("`pool` and `mode` can't be null");
+        }
+
+        Run run = new Run(n, mode, listener);
+        stats = pool.invoke(new TrialTask(run, 0, trials, new SplittableRandom(seed)));
+    }
+
+    /**
+     * perform trials on an n-by-n grid in parallel until the 95% confidence interval is narrow enough
+     * <p>
+     * At least 30 trials run before the interval is trusted. Batches that are already
+     * running when the target is reached still finish, so a few more trials than needed
+     * may be counted, and the number of trials depends on the timing of the workers.
+     *
+     * @param n         the width of the grid
+     * @param halfWidth the target half-width of the 95% confidence interval
+     * @param maxTrials the maximum trial times
+     * @param seed      the seed of the root random stream
+     * @param pool      the pool to run the trials on
+     * @param mode      how each trial chooses the next site to open
+     * @return the statistics of the trials performed
+     */
+    public static PercolationStats untilHalfWidth(int n, double halfWidth, int maxTrials, long seed,
+                                                  ForkJoinPool pool, PercolationTrial.Mode mode) {
+        if (!(halfWidth > 0)) {
+            throw new IllegalArgumentException("`halfWidth` must be positive");
+        }
+
+        return new PercolationStats(n, maxTrials, seed, pool, mode,
+                estimate -> estimate.count() < MIN_ADAPTIVE_TRIALS || estimate.halfWidth() > halfWidth);
+    }
+
+    /**
+     * The state shared by all tasks of one experiment.
+     */
+    private static class Run {
+        private final int n;
+        private final PercolationTrial.Mode mode;
+        private final Listener listener;
+
+        /**
+         * The statistics of all finished batches, guarded by `this`
+         */
+        private final RunningStats progress = new RunningStats();
+
+        /**
+         * Whether the listener asked to stop
+         */
+        private volatile boolean stopped;
 
-        samples = new double[trials];
-        int area = n * n;
-        for (int i = 0; i < trials; i++) {
-            Percolation percolation = new Percolation(n);
-            while (!percolation.percolates()) {
-                int row = StdRandom.uniformInt(n) + 1;
-                int col = StdRandom.uniformInt(n) + 1;
-                percolation.open(row, col);
+        /**
+         * The trial states no batch is using. A batch takes one and gives it back, so
+         * there are never more than the batches running at once, and they are garbage
+         * with the run.
+         */
+        private final ConcurrentLinkedQueue<PercolationTrial> idleTrials = new ConcurrentLinkedQueue<>();
+
+        Run(int n, PercolationTrial.Mode mode, Listener listener) {
+            this.n = n;
+            this.mode = mode;
+            this.listener = listener;
+        }
+
+        /**
+         * @return an idle trial state, a new one if there is none
+         */
+        PercolationTrial takeTrial() {
+            PercolationTrial trial = idleTrials.poll();
+            return trial != null ? trial : new PercolationTrial(n);
+        }
+
+        void releaseTrial(PercolationTrial trial) {
+            idleTrials.offer(trial);
+        }
+
+        /**
+         * Report a finished batch to the listener.
+         */
+        synchronized void report(RunningStats batch) {
+            if (listener == null || stopped) {
+                return;
+            }
+            progress.merge(batch);
+            if (!listener.onProgress(new RunningStats(progress))) {
+                stopped = true;
             }
-            samples[i] = percolation.numberOfOpenSites() * 1.0 / area;
         }
     }
 
+    /**
+     * Run the trials [lo, hi), split in half until the range is small enough.
+     * <p>
+     * Every split hands the left half a stream split off the parent stream,
+     * so each leaf gets its own independent random stream.
+     */
+    @SuppressWarnings("serial")
+    private static class TrialTask extends RecursiveTask<RunningStats> {
+        private final Run run;
+        private final int lo, hi;
+        private final SplittableRandom random;
+
+        TrialTask(Run run, int lo, int hi, SplittableRandom random) {
+            this.run = run;
+            this.lo = lo;
+            this.hi = hi;
+            this.random = random;
+        }
+
+        @Override
+        protected RunningStats compute() {
+            if (hi - lo <= SEQUENTIAL_TRIALS) {
+                RunningStats batch = new RunningStats();
+                PercolationTrial trial = run.takeTrial();
+                double sites = (double) run.n * run.n;
+                for (int i = lo; i < hi && !run.stopped; i++) {
+                    batch.add(trial.run(run.mode, random) / sites);
+                }
+                run.releaseTrial(trial);
+                run.report(batch);
+                return batch;
+            }
+
+            int mid = (lo + hi) >>> 1;
+            TrialTask left = new TrialTask(run, lo, mid, random.split());
+            TrialTask right = new TrialTask(run, mid, hi, random);
+            left.fork();
+            RunningStats stats = right.compute();
+            RunningStats merged = left.join();
+            merged.merge(stats);
+            return merged;
+        }
+    }
+
+    /**
+     * @return the number of trials performed, less than asked if the run was stopped
+     */
+    public int trials() {
+        return (int) stats.count();
+    }
+
     /**
      * @return sample mean of percolation thresholds
      */
     public double mean() {
-        return StdStats.mean(samples);
+        return stats.mean();
     }
 
     /**
      * @return sample standard deviation of percolation thresholds
      */
     public double stddev() {
-        return StdStats.stddev(samples);
+        return stats.stddev();
     }
 
     /**
      * @return low endpoint of 95% confidence interval
      */
     public double confidenceLo() {
-        return mean() - CONFIDENCE_95 * stddev() / Math.sqrt(samples.length);
+        return stats.confidenceLo();
     }
 
     /**
      * @return high endpoint of 95% confidence interval
      */
     public double confidenceHi() {
-        return mean() + CONFIDENCE_95 * stddev() / Math.sqrt(samples.length);
+        return stats.confidenceHi();
     }
 
+    /**
+     * Usage: PercolationStats n trials [seed [threads [RANDOM_SITES|PERMUTATION [progress|halfWidth]]]]
+     * <p>
+     * With a half-width, `trials` is the maximum and the run stops once the 95% confidence
+     * interval is that narrow.
+     */
     public static void main(String[] args) {
         int n = Integer.parseInt(args[0]);
         int t = Integer.parseInt(args[1]);
-        PercolationStats percolationStats = new PercolationStats(n, t);
+        PercolationStats percolationStats;
+        boolean adaptive = false;
+        if (args.length > 2) {
+            long seed = Long.parseLong(args[2]);
+            int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+            PercolationTrial.Mode mode = args.length > 4
+                    ? PercolationTrial.Mode.valueOf(args[4]) : PercolationTrial.Mode.RANDOM_SITES;
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                if (args.length > 5 && !"progress".equals(args[5])) {
+                    adaptive = true;
+                    percolationStats = untilHalfWidth(n, Double.parseDouble(args[5]), t, seed, pool, mode);
+                } else {
+                    Listener listener = args.length > 5
+                            ? estimate -> {
+                                System.err.println(estimate);
+                                return true;
+                            }
+                            : null;
+                    percolationStats = new PercolationStats(n, t, seed, pool, mode, listener);
+                }
+            } finally {
+                pool.shutdown();
+            }
+        } else {
+            percolationStats = new PercolationStats(n, t);
+        }
+        if (adaptive) {
+            System.out.println("trials                  = " + percolationStats.trials());
+        }
         System.out.println("mean                    = " + percolationStats.mean());
         System.out.println("stddev                  = " + percolationStats.stddev());
         System.out.println("95% confidence interval = [" + percolationStats.confidenceLo()
@@ -0,0 +1,132 @@
+package percolation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs `PercolationStats` for many grid sizes in one JVM.
+ * <p>
+ * All sizes share one fork-join pool, and every worker keeps its trial state while
+ * the size doesn't change, so only the first size pays for JIT warm-up.
+ * Results are written to standard output as CSV or JSON, one record per size.
+ *
+ * @author huangkai
+ */
+public class PercolationSweep {
+    /**
+     * The result of one grid size.
+     */
+    private static class Result {
+        private final int n;
+        private final PercolationStats stats;
+        private final long millis;
+
+        Result(int n, PercolationStats stats, long millis) {
+            this.n = n;
+            this.stats = stats;
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * @param spec comma separated sizes, each either `n` or a range `from:to:step`
+     * @return the grid sizes in the given order
+     */
+    private static List<Integer> parseSizes(String spec) {
+        List<Integer> sizes = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] range = part.split(":");
+            if (range.length == 1) {
+                sizes.add(Integer.parseInt(range[0]));
+            } else if (range.length == 3) {
+                int from = Integer.parseInt(range[0]);
+                int to = Integer.parseInt(range[1]);
+                int step = Integer.parseInt(range[2]);
+                if (step <= 0) {
+                    throw new IllegalArgumentException("The step of `" + part + "` must be positive");
+                }
+                for (int n = from; n <= to; n += step) {
+                    sizes.add(n);
+                }
+            } else {
+                throw new IllegalArgumentException("`" + part + "` is neither a size nor a range from:to:step");
+            }
+        }
+        return sizes;
+    }
+
+    private static void printCsv(List<Result> results) {
+        System.out.println("n,trials,mean,stddev,confidenceLo,confidenceHi,millis");
+        for (Result result : results) {
+            PercolationStats stats = result.stats;
+            System.out.println(String.format(Locale.ROOT, "%d,%d,%s,%s,%s,%s,%d",
+                    result.n, stats.trials(), stats.mean(), stats.stddev(),
+                    stats.confidenceLo(), stats.confidenceHi(), result.millis));
+        }
+    }
+
+    private static void printJson(List<Result> results) {
+        System.out.println("[");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            PercolationStats stats = result.stats;
+            System.out.println(String.format(Locale.ROOT,
+                    "  {\"n\": %d, \"trials\": %d, \"mean\": %s, \"stddev\": %s, "
+                            + "\"confidenceLo\": %s, \"confidenceHi\": %s, \"millis\": %d}%s",
+                    result.n, stats.trials(), json(stats.mean()), json(stats.stddev()),
+                    json(stats.confidenceLo()), json(stats.confidenceHi()), result.millis,
+                    i + 1 < results.size() ? "," : ""));
+        }
+        System.out.println("]");
+    }
+
+    /**
+     * @return the JSON literal of `x`, `null` for `NaN` and infinities
+     */
+    private static String json(double x) {
+        return Double.isNaN(x) || Double.isInfinite(x) ? "null" : Double.toString(x);
+    }
+
+    /**
+     * Usage: PercolationSweep sizes trials [seed [threads [csv|json [RANDOM_SITES|PERMUTATION [halfWidth]]]]]
+     * <p>
+     * `sizes` is a comma separated list of sizes and ranges `from:to:step`, e.g. `100,200:1000:200`.
+     * With a half-width, `trials` is the maximum per size and every size stops once its 95%
+     * confidence interval is that narrow.
+     */
+    public static void main(String[] args) {
+        List<Integer> sizes = parseSizes(args[0]);
+        int trials = Integer.parseInt(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        String format = args.length > 4 ? args[4] : "csv";
+        PercolationTrial.Mode mode = args.length > 5
+                ? PercolationTrial.Mode.valueOf(args[5]) : PercolationTrial.Mode.RANDOM_SITES;
+        double halfWidth = args.length > 6 ? Double.parseDouble(args[6]) : 0;
+        if (!"csv".equals(format) && !"json".equals(format)) {
+            throw new IllegalArgumentException("The format must be csv or json");
+        }
+
+        List<Result> results = new ArrayList<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (int n : sizes) {
+                long start = System.nanoTime();
+                PercolationStats stats = halfWidth > 0
+                        ? PercolationStats.untilHalfWidth(n, halfWidth, trials, seed + n, pool, mode)
+                        : new PercolationStats(n, trials, seed + n, pool, mode);
+                results.add(new Result(n, stats, (System.nanoTime() - start) / 1_000_000));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        if ("csv".equals(format)) {
+            printCsv(results);
+        } else {
+            printJson(results);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package percolation;
+
+import edu.princeton.cs.algs4.StdOut;
+import edu.princeton.cs.algs4.StdRandom;
+
+import java.util.Arrays;
+
+/**
+ * Offline percolation threshold of a given opening order.
+ * <p>
+ * Given a permutation of the n-by-n sites, finds the shortest prefix whose sites
+ * make the system percolate, with a single union pass that stops as soon as it
+ * percolates. The grid is kept between calls, so a batch of permutations allocates nothing.
+ *
+ * @author huangkai
+ */
+public class PercolationThreshold {
+    /**
+     * The grid, reset before every permutation
+     */
+    private final ResettablePercolation grid;
+
+    /**
+     * The number of sites of the grid
+     */
+    private final int sites;
+
+    /**
+     * One bit per site, the sites a permutation has listed so far
+     */
+    private final long[] listed;
+
+    /**
+     * creates the threshold finder of an n-by-n grid
+     */
+    public PercolationThreshold(int n) {
+        grid = new ResettablePercolation(n);
+        sites = n * n;
+        listed = new long[(sites + 63) >>> 6];
+    }
+
+    /**
+     * @param permutation the 0-based 1D indices `(row - 1) * n + (col - 1)` of all sites, in opening order
+     * @return the length of the shortest prefix of `permutation` that percolates
+     * @throws IllegalArgumentException if `permutation` isn't a permutation of the sites
+     */
+    public int percolatingPrefix(int[] permutation) {
+        validate(permutation);
+
+        grid.reset();
+        for (int i = 0; i < sites; i++) {
+            grid.openSite(permutation[i]);
+            if (grid.percolates()) {
+                return i + 1;
+            }
+        }
+        throw new IllegalStateException("The full grid must percolate");
+    }
+
+    /**
+     * Checks every entry, not only the prefix that is opened.
+     */
+    private void validate(int[] permutation) {
+        if (permutation == null || permutation.length != sites) {
+            throw new IllegalArgumentException("`permutation` must contain every site of the grid");
+        }
+
+        Arrays.fill(listed, 0);
+        for (int site : permutation) {
+            if (site < 0 || site >= sites) {
+                throw new IllegalArgumentException("The site " + site + " must in the n-by-n grid");
+            }
+            long bit = 1L << site;
+            if ((listed[site >>> 6] & bit) != 0) {
+                throw new IllegalArgumentException("The site " + site + " must not repeat in `permutation`");
+            }
+            listed[site >>> 6] |= bit;
+        }
+    }
+
+    /**
+     * @return the fraction of sites open when the system opened along `permutation` percolates
+     */
+    public double threshold(int[] permutation) {
+        return percolatingPrefix(permutation) * 1.0 / sites;
+    }
+
+    /**
+     * @return the threshold of every permutation
+     */
+    public double[] thresholds(int[][] permutations) {
+        if (permutations == null) {
+            throw new IllegalArgumentException("`permutations` can't be null");
+        }
+        double[] thresholds = new double[permutations.length];
+        for (int i = 0; i < permutations.length; i++) {
+            thresholds[i] = threshold(permutations[i]);
+        }
+        return thresholds;
+    }
+
+    public static void main(String[] args) {
+        int n = Integer.parseInt(args[0]);
+        int trials = Integer.parseInt(args[1]);
+        PercolationThreshold finder = new PercolationThreshold(n);
+        for (int i = 0; i < trials; i++) {
+            StdOut.println(finder.threshold(StdRandom.permutation(n * n)));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package percolation;
+
+import java.util.SplittableRandom;
+
+/**
+ * One worker's reusable state for running percolation trials on an n-by-n grid.
+ * <p>
+ * A trial blocks every site, opens sites in a random order until the system
+ * percolates, and returns the number of open sites. Nothing is allocated per trial.
+ *
+ * @author huangkai
+ */
+public class PercolationTrial {
+    /**
+     * How a trial chooses the next site to open.
+     */
+    public enum Mode {
+        /**
+         * Draw uniform (row, col) pairs, already open sites are drawn again.
+         */
+        RANDOM_SITES,
+
+        /**
+         * Walk a lazily shuffled permutation of the sites, every draw opens a new site.
+         */
+        PERMUTATION
+    }
+
+    /**
+     * The grid, reset before every trial
+     */
+    private final ResettablePercolation grid;
+
+    /**
+     * The sites in the order of the last trial, any order is fine to shuffle again,
+     * `null` until the first {@link Mode#PERMUTATION} trial
+     */
+    private int[] order;
+
+    /**
+     * The width of the grid
+     */
+    private final int width;
+
+    /**
+     * creates the trial state of an n-by-n grid
+     */
+    public PercolationTrial(int n) {
+        grid = new ResettablePercolation(n);
+        width = n;
+    }
+
+    /**
+     * @return the width of the grid
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * runs one trial
+     *
+     * @return the number of open sites when the system percolates
+     */
+    public int run(Mode mode, SplittableRandom random) {
+        grid.reset();
+        if (mode == Mode.RANDOM_SITES) {
+            while (!grid.percolates()) {
+                grid.open(random.nextInt(width) + 1, random.nextInt(width) + 1);
+            }
+            return grid.numberOfOpenSites();
+        }
+
+        if (order == null) {
+            order = new int[width * width];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+        }
+
+        // Fisher–Yates shuffle that stops as soon as the opened prefix percolates
+        int sites = order.length;
+        for (int i = 0; !grid.percolates(); i++) {
+            int j = i + random.nextInt(sites - i);
+            int site = order[j];
+            order[j] = order[i];
+            order[i] = site;
+            grid.openSite(site);
+        }
+        return grid.numberOfOpenSites();
+    }
+}
@@ -0,0 +1,176 @@
+package percolation;
+
+/**
+ * A percolation grid that keeps its arrays between trials.
+ * <p>
+ * It has the same API as {@link Percolation} plus {@link #reset()}, which blocks
+ * every site again without allocating, and it also supports rectangular m-by-n grids.
+ * Instead of a second union-find against backwash, it keeps a single union-find
+ * whose roots carry whether their component touches the top row and the bottom row,
+ * with the site state packed into bits, so a site costs about 5.4 bytes and
+ * {@link #percolates()} is a field read.
+ *
+ * @author huangkai
+ */
+public class ResettablePercolation {
+    /**
+     * The union-find and site state of the grid
+     */
+    private final PercolationEngine engine;
+
+    /**
+     * The height of the grid
+     */
+    private final int height;
+
+    /**
+     * The width of the grid
+     */
+    private final int width;
+
+    /**
+     * The number of sites of the grid
+     */
+    private final int sites;
+
+    /**
+     * creates n-by-n grid, with all sites initially blocked
+     */
+    public ResettablePercolation(int n) {
+        this(n, n);
+    }
+
+    /**
+     * creates m-by-n grid, with all sites initially blocked
+     *
+     * @param m the number of rows
+     * @param n the number of columns
+     */
+    public ResettablePercolation(int m, int n) {
+        if (m <= 0 || n <= 0) {
+            throw new IllegalArgumentException("`m` and `n` must be positive");
+        }
+        if ((long) m * n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The grid is too large");
+        }
+
+        height = m;
+        width = n;
+        sites = m * n;
+        engine = new PercolationEngine(sites);
+    }
+
+    /**
+     * blocks every site again, keeping the arrays
+     */
+    public void reset() {
+        engine.reset();
+    }
+
+    /**
+     * @return the height of the grid
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * @return the width of the grid
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * opens the site (row, col) if it isn't open already
+     */
+    public void open(int row, int col) {
+        openSite(getIndex(row, col));
+    }
+
+    /**
+     * opens the site with the 0-based 1D index `index` if it isn't open already
+     */
+    void openSite(int index) {
+        if (engine.open(index, index < width, index >= sites - width)) {
+            // union the current site with it's left, right, top, bottom site
+            // if neighbour not exists, skip this
+            int col = index % width;
+            if (index >= width) {
+                engine.connect(index, index - width);
+            }
+            if (index < sites - width) {
+                engine.connect(index, index + width);
+            }
+            if (col > 0) {
+                engine.connect(index, index - 1);
+            }
+            if (col < width - 1) {
+                engine.connect(index, index + 1);
+            }
+        }
+    }
+
+    /**
+     * @return is the site (row, col) open?
+     */
+    public boolean isOpen(int row, int col) {
+        return engine.isOpen(getIndex(row, col));
+    }
+
+    /**
+     * @return is the site (row, col) full?
+     */
+    public boolean isFull(int row, int col) {
+        return engine.isFull(getIndex(row, col));
+    }
+
+    /**
+     * @return the number of open sites
+     */
+    public int numberOfOpenSites() {
+        return engine.numberOfOpenSites();
+    }
+
+    /**
+     * @return does the system percolate?
+     */
+    public boolean percolates() {
+        return engine.percolates();
+    }
+
+    public static void main(String[] args) {
+        ResettablePercolation percolation = new ResettablePercolation(3);
+        for (int i = 0; i < 2; i++) {
+            System.out.println(percolation.percolates());
+            percolation.open(1, 3);
+            percolation.open(2, 3);
+            percolation.open(3, 3);
+            percolation.open(3, 1);
+            System.out.println(percolation.isFull(1, 3));
+            System.out.println(percolation.isFull(3, 1));
+            System.out.println(percolation.numberOfOpenSites());
+            System.out.println(percolation.percolates());
+            percolation.reset();
+        }
+
+        ResettablePercolation rectangle = new ResettablePercolation(2, 4);
+        rectangle.open(1, 4);
+        System.out.println(rectangle.percolates());
+        rectangle.open(2, 4);
+        System.out.println(rectangle.percolates());
+    }
+
+    /**
+     * @param row base-1 index of row
+     * @param col base-1 index of col
+     * @return the 0-based 1D index
+     */
+    private int getIndex(int row, int col) {
+        if (row <= 0 || row > height || col <= 0 || col > width) {
+            throw new IllegalArgumentException("The given site (row, col) must in the m-by-n grid");
+        }
+
+        return (row - 1) * width + (col - 1);
+    }
+}
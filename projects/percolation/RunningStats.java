@@ -0,0 +1,122 @@
+package percolation;
+
+/**
+ * Online mean and variance of a stream of samples in O(1) memory (Welford's algorithm).
+ * <p>
+ * Two accumulators over disjoint samples can be merged (Chan et al.), so parallel
+ * workers can accumulate on their own and combine at the end.
+ *
+ * @author huangkai
+ */
+public class RunningStats {
+    private static final double CONFIDENCE_95 = 1.96;
+
+    /**
+     * The number of samples
+     */
+    private long count;
+
+    /**
+     * The mean of the samples
+     */
+    private double mean;
+
+    /**
+     * The sum of squared differences from the mean
+     */
+    private double m2;
+
+    /**
+     * creates an accumulator without samples
+     */
+    public RunningStats() {
+    }
+
+    /**
+     * creates a copy of `that`
+     */
+    public RunningStats(RunningStats that) {
+        this.count = that.count;
+        this.mean = that.mean;
+        this.m2 = that.m2;
+    }
+
+    /**
+     * adds a sample
+     */
+    public void add(double x) {
+        count++;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+    }
+
+    /**
+     * adds all samples of `that`
+     */
+    public void merge(RunningStats that) {
+        if (that.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = that.count;
+            mean = that.mean;
+            m2 = that.m2;
+            return;
+        }
+
+        long total = count + that.count;
+        double delta = that.mean - mean;
+        mean += delta * that.count / total;
+        m2 += that.m2 + delta * delta * ((double) count * that.count / total);
+        count = total;
+    }
+
+    /**
+     * @return the number of samples
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * @return sample mean, `NaN` without samples
+     */
+    public double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return sample standard deviation, `NaN` with less than two samples
+     */
+    public double stddev() {
+        return count < 2 ? Double.NaN : Math.sqrt(m2 / (count - 1));
+    }
+
+    /**
+     * @return half of the width of the 95% confidence interval
+     */
+    public double halfWidth() {
+        return CONFIDENCE_95 * stddev() / Math.sqrt(count);
+    }
+
+    /**
+     * @return low endpoint of 95% confidence interval
+     */
+    public double confidenceLo() {
+        return mean() - halfWidth();
+    }
+
+    /**
+     * @return high endpoint of 95% confidence interval
+     */
+    public double confidenceHi() {
+        return mean() + halfWidth();
+    }
+
+    @Override
+    public String toString() {
+        return count + " samples, mean " + mean() + ", 95% confidence interval ["
+                + confidenceLo() + ", " + confidenceHi() + "]";
+    }
+}
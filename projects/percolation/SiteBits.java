@@ -0,0 +1,49 @@
+package percolation;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size set of sites stored as bits, 64 sites per `long`.
+ * <p>
+ * Indices are not validated beyond the array access.
+ *
+ * @author huangkai
+ */
+public final class SiteBits {
+    /**
+     * The bits, site `i` is bit `i & 63` of `words[i >>> 6]`
+     */
+    private final long[] words;
+
+    /**
+     * creates a set of `n` sites, all cleared
+     */
+    public SiteBits(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("`n` can't be negative");
+        }
+
+        words = new long[(n + 63) >>> 6];
+    }
+
+    /**
+     * @return whether the site `i` is set
+     */
+    public boolean get(int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    /**
+     * sets the site `i`
+     */
+    public void set(int i) {
+        words[i >>> 6] |= 1L << i;
+    }
+
+    /**
+     * clears every site
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+}
@@ -0,0 +1,45 @@
+package percolation;
+
+import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+
+/**
+ * The union-find operations a percolation grid needs.
+ *
+ * @author huangkai
+ */
+public interface UnionFind {
+    /**
+     * @return the canonical element of the set containing `p`
+     */
+    int find(int p);
+
+    /**
+     * Merge the set containing `p` with the set containing `q`.
+     */
+    void union(int p, int q);
+
+    /**
+     * @return whether `p` and `q` are in the same set
+     */
+    default boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    /**
+     * @return the `WeightedQuickUnionUF` of algs4 with `n` elements, as a `UnionFind`
+     */
+    static UnionFind weightedQuickUnion(int n) {
+        WeightedQuickUnionUF uf = new WeightedQuickUnionUF(n);
+        return new UnionFind() {
+            @Override
+            public int find(int p) {
+                return uf.find(p);
+            }
+
+            @Override
+            public void union(int p, int q) {
+                uf.union(p, q);
+            }
+        };
+    }
+}
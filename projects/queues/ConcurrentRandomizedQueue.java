@@ -0,0 +1,325 @@
+package queues;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe randomized queue, with the API of {@link RandomizedQueue}.
+ * <p>
+ * Items are striped over independent arrays, each behind its own lock. Every
+ * operation starts at a stripe picked with the thread-local random generator and
+ * moves on to the next stripe when that lock is busy, so threads rarely wait for
+ * each other. An item is removed uniformly at random from a random non-empty
+ * stripe, since items are spread over the stripes at random as well, the order
+ * is random, but not exactly uniform over the whole queue at every moment.
+ *
+ * @author huangkai
+ */
+public class ConcurrentRandomizedQueue<Item> implements Iterable<Item> {
+    /**
+     * The starting capacity of every stripe.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * A part of the queue behind its own lock.
+     */
+    @SuppressWarnings("serial")
+    private static class Stripe extends ReentrantLock {
+        private Object[] items = new Object[DEFAULT_CAPACITY];
+
+        /**
+         * The number of items, written under the lock, read without it.
+         */
+        private volatile int size;
+
+        void add(Object item) {
+            if (size == items.length) {
+                resize(items.length * 2);
+            }
+            items[size] = item;
+            size = size + 1;
+        }
+
+        Object removeAt(int index) {
+            int last = size - 1;
+            Object item = items[index];
+            items[index] = items[last];
+            items[last] = null;
+            size = last;
+            if (last == items.length / 4 && items.length / 2 >= DEFAULT_CAPACITY) {
+                resize(items.length / 2);
+            }
+            return item;
+        }
+
+        private void resize(int capacity) {
+            Object[] newItems = new Object[capacity];
+            System.arraycopy(items, 0, newItems, 0, size);
+            items = newItems;
+        }
+    }
+
+    /**
+     * The stripes, a power of two of them.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * Constructor of randomized queue, with two stripes per available processor.
+     */
+    public ConcurrentRandomizedQueue() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Constructor of randomized queue.
+     *
+     * @param concurrency the expected number of threads using the queue at the same time.
+     */
+    public ConcurrentRandomizedQueue(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("`concurrency` must be positive");
+        }
+
+        int n = Integer.highestOneBit(Math.min(concurrency, 1 << 16) * 2 - 1);
+        stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Add the item to the queue.
+     */
+    public void enqueue(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item can't be null.");
+        }
+
+        int mask = stripes.length - 1;
+        int start = ThreadLocalRandom.current().nextInt(stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(start + i) & mask];
+            if (stripe.tryLock()) {
+                try {
+                    stripe.add(item);
+                    return;
+                } finally {
+                    stripe.unlock();
+                }
+            }
+        }
+
+        Stripe stripe = stripes[start];
+        stripe.lock();
+        try {
+            stripe.add(item);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Remove and return a random item.
+     */
+    public Item dequeue() {
+        Item item = take(true);
+        if (item == null) {
+            throw new NoSuchElementException("The queue is empty");
+        }
+        return item;
+    }
+
+    /**
+     * @return a random item without removing it.
+     */
+    public Item sample() {
+        Item item = take(false);
+        if (item == null) {
+            throw new NoSuchElementException("The queue is empty");
+        }
+        return item;
+    }
+
+    /**
+     * Find a random item, first only trying free stripes, then waiting for every lock.
+     *
+     * @param remove whether to remove the item.
+     * @return the item, `null` if every stripe was empty when visited.
+     */
+    @SuppressWarnings("unchecked")
+    private Item take(boolean remove) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int mask = stripes.length - 1;
+        int start = random.nextInt(stripes.length);
+        for (int pass = 0; pass < 2; pass++) {
+            for (int i = 0; i < stripes.length; i++) {
+                Stripe stripe = stripes[(start + i) & mask];
+                if (stripe.size == 0) {
+                    continue;
+                }
+                if (pass == 0) {
+                    if (!stripe.tryLock()) {
+                        continue;
+                    }
+                } else {
+                    stripe.lock();
+                }
+                try {
+                    if (stripe.size > 0) {
+                        int index = random.nextInt(stripe.size);
+                        return (Item) (remove ? stripe.removeAt(index) : stripe.items[index]);
+                    }
+                } finally {
+                    stripe.unlock();
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return whether the queue is empty, may be stale when other threads are active.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return the number of items on the queue, may be stale when other threads are active.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return size;
+    }
+
+    /**
+     * @return an iterator over a snapshot of the items, in random order.
+     */
+    @Override
+    public Iterator<Item> iterator() {
+        Object[] snapshot = new Object[DEFAULT_CAPACITY];
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock();
+            try {
+                if (size + stripe.size > snapshot.length) {
+                    Object[] bigger = new Object[Math.max(snapshot.length * 2, size + stripe.size)];
+                    System.arraycopy(snapshot, 0, bigger, 0, size);
+                    snapshot = bigger;
+                }
+                System.arraycopy(stripe.items, 0, snapshot, size, stripe.size);
+                size += stripe.size;
+            } finally {
+                stripe.unlock();
+            }
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Object swap = snapshot[i];
+            snapshot[i] = snapshot[j];
+            snapshot[j] = swap;
+        }
+
+        Object[] items = snapshot;
+        int count = size;
+        return new Iterator<Item>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Item next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (Item) items[index++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("The randomized queue implementation doesn't support remove operation.");
+            }
+        };
+    }
+
+    /**
+     * Stress test: producers enqueue distinct numbers while consumers dequeue them,
+     * then checks every number came out exactly once.
+     * <p>
+     * Usage: ConcurrentRandomizedQueue [threads [itemsPerProducer]]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int itemsPerProducer = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int total = threads * itemsPerProducer;
+        ConcurrentRandomizedQueue<Integer> queue = new ConcurrentRandomizedQueue<>(threads * 2);
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicInteger consumed = new AtomicInteger();
+
+        Thread[] workers = new Thread[threads * 2];
+        for (int t = 0; t < threads; t++) {
+            int first = t * itemsPerProducer;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < itemsPerProducer; i++) {
+                    queue.enqueue(first + i);
+                    if ((i & 7) == 0) {
+                        try {
+                            queue.sample();
+                        } catch (NoSuchElementException e) {
+                            // consumers emptied the queue in the meantime
+                        }
+                    }
+                }
+            });
+            workers[threads + t] = new Thread(() -> {
+                while (consumed.get() < total) {
+                    try {
+                        seen.incrementAndGet(queue.dequeue());
+                        consumed.incrementAndGet();
+                    } catch (NoSuchElementException e) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int wrong = 0;
+        for (int i = 0; i < total; i++) {
+            if (seen.get(i) != 1) {
+                wrong++;
+            }
+        }
+        System.out.println(total + " items, " + threads + " producers, " + threads + " consumers, "
+                + elapsed / 1_000_000 + " ms");
+        System.out.println(wrong == 0 && queue.isEmpty()
+                ? "every item came out exactly once"
+                : wrong + " items didn't come out exactly once");
+        if (wrong != 0 || !queue.isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
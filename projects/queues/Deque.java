@@ -1,7 +1,10 @@
 package queues;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 
 /**
@@ -42,6 +45,11 @@ public class Deque<Item> implements Iterable<Item> {
      */
     private int size;
 
+    /**
+     * The number of modifications, to fail fast in iterators.
+     */
+    private int modCount;
+
     /**
      * Constructor of deque.
      */
@@ -67,6 +75,7 @@ public class Deque<Item> implements Iterable<Item> {
             head = node;
         }
         size++;
+        modCount++;
     }
 
     /**
@@ -86,6 +95,7 @@ public class Deque<Item> implements Iterable<Item> {
             tail = node;
         }
         size++;
+        modCount++;
     }
 
     /**
@@ -104,6 +114,7 @@ public class Deque<Item> implements Iterable<Item> {
             head.prev = null;
         }
         size--;
+        modCount++;
         return item;
     }
 
@@ -123,6 +134,7 @@ public class Deque<Item> implements Iterable<Item> {
             tail.next = null;
         }
         size--;
+        modCount++;
         return item;
     }
 
@@ -149,6 +161,17 @@ public class Deque<Item> implements Iterable<Item> {
         return new DequeIterator();
     }
 
+    /**
+     * A linked list can't be split in the middle, so parallel streams take batches
+     * from the front into arrays, but the size is exact, unlike the default.
+     *
+     * @return a spliterator over items in order from front to back.
+     */
+    @Override
+    public Spliterator<Item> spliterator() {
+        return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -162,6 +185,7 @@ public class Deque<Item> implements Iterable<Item> {
     }
 
     private class DequeIterator implements Iterator<Item> {
+        private final int expectedModCount = modCount;
         private Node<Item> cur = head;
 
         @Override
@@ -171,6 +195,9 @@ public class Deque<Item> implements Iterable<Item> {
 
         @Override
         public Item next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
             if (!hasNext()) {
                 throw new NoSuchElementException();
             }
@@ -0,0 +1,132 @@
+package queues;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Single-threaded micro benchmark of {@link Deque} against {@link RingDeque}.
+ * <p>
+ * For each implementation, fills the deque with n items at the back, iterates over it,
+ * and empties it from the front, reporting the time per item of every phase and the
+ * bytes allocated per item while filling. The same boxed item is pushed every time,
+ * so the bytes only count the structure itself. Rounds are repeated until about
+ * 10 million items went through, and the fastest time of each phase is reported.
+ *
+ * @author huangkai
+ */
+public class DequeBenchmark {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * The operations under test, so both deques run the same loops.
+     */
+    private interface Subject {
+        void push(Integer item);
+
+        Integer pop();
+
+        Iterable<Integer> items();
+    }
+
+    private static Subject linked() {
+        Deque<Integer> deque = new Deque<>();
+        return new Subject() {
+            @Override
+            public void push(Integer item) {
+                deque.addLast(item);
+            }
+
+            @Override
+            public Integer pop() {
+                return deque.removeFirst();
+            }
+
+            @Override
+            public Iterable<Integer> items() {
+                return deque;
+            }
+        };
+    }
+
+    private static Subject ring() {
+        RingDeque<Integer> deque = new RingDeque<>();
+        return new Subject() {
+            @Override
+            public void push(Integer item) {
+                deque.addLast(item);
+            }
+
+            @Override
+            public Integer pop() {
+                return deque.removeFirst();
+            }
+
+            @Override
+            public Iterable<Integer> items() {
+                return deque;
+            }
+        };
+    }
+
+    /**
+     * Runs one round and keeps the fastest time of each phase in `best`.
+     *
+     * @param best push, iterate and pop time, and the bytes allocated by pushes
+     */
+    private static void measure(Subject subject, int n, long[] best) {
+        long threadId = Thread.currentThread().getId();
+        Integer item = 42;
+
+        long bytes = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            subject.push(item);
+        }
+        long push = System.nanoTime() - start;
+        bytes = THREADS.getThreadAllocatedBytes(threadId) - bytes;
+
+        start = System.nanoTime();
+        long sum = 0;
+        for (Integer x : subject.items()) {
+            sum += x;
+        }
+        long iterate = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            sum -= subject.pop();
+        }
+        long pop = System.nanoTime() - start;
+
+        if (sum != 0) {
+            throw new IllegalStateException("The deque lost items");
+        }
+        best[0] = Math.min(best[0], push);
+        best[1] = Math.min(best[1], iterate);
+        best[2] = Math.min(best[2], pop);
+        best[3] = bytes;
+    }
+
+    private static void print(String name, int n, long[] best) {
+        System.out.printf("%-8s n = %9d  push %6.2f ns  iterate %6.2f ns  pop %6.2f ns  %6.2f bytes/item%n",
+                name, n, best[0] * 1.0 / n, best[1] * 1.0 / n, best[2] * 1.0 / n, best[3] * 1.0 / n);
+    }
+
+    /**
+     * Usage: DequeBenchmark n1 [n2 ...]
+     */
+    public static void main(String[] args) {
+        for (String arg : args) {
+            int n = Integer.parseInt(arg);
+            int rounds = Math.max(5, 10_000_000 / n);
+            long[] linked = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, 0};
+            long[] ring = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, 0};
+            for (int round = 0; round < rounds; round++) {
+                measure(linked(), n, linked);
+                measure(ring(), n, ring);
+            }
+            print("linked", n, linked);
+            print("ring", n, ring);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package queues;
+
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+/**
+ * A deque of primitive `long` values, with the add/remove-at-both-ends API of {@link Deque}.
+ * <p>
+ * Values live in a power-of-two circular `long[]` like {@link RingDeque}, so no
+ * operation boxes. Iteration goes through {@link #forEach(LongConsumer)} instead of
+ * an `Iterator<Long>`.
+ * <p>
+ * Removing never shrinks the array, so a deque reused for many rounds, like a BFS
+ * queue, stops allocating once it reached its peak size. {@link #trimToSize()}
+ * gives the memory back explicitly.
+ *
+ * @author huangkai
+ */
+public class LongDeque {
+    /**
+     * The starting and minimum capacity, a power of two.
+     */
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * The circular array to carry values, its length is a power of two.
+     */
+    private long[] values;
+
+    /**
+     * The index of the front value.
+     */
+    private int head;
+
+    /**
+     * The size of the deque.
+     */
+    private int size;
+
+    /**
+     * Constructor of deque.
+     */
+    public LongDeque() {
+        values = new long[MIN_CAPACITY];
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Add the value to the front.
+     */
+    public void addFirst(long value) {
+        if (size == values.length) {
+            resize(values.length * 2);
+        }
+        head = (head - 1) & (values.length - 1);
+        values[head] = value;
+        size++;
+    }
+
+    /**
+     * Add the value to the back
+     */
+    public void addLast(long value) {
+        if (size == values.length) {
+            resize(values.length * 2);
+        }
+        values[(head + size) & (values.length - 1)] = value;
+        size++;
+    }
+
+    /**
+     * remove and return the value from the front
+     */
+    public long removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+
+        long value = values[head];
+        head = (head + 1) & (values.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * remove and return the value from the back
+     */
+    public long removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+
+        long value = values[(head + size - 1) & (values.length - 1)];
+        size--;
+        return value;
+    }
+
+    /**
+     * @return whether the deque is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of values on the deque.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove every value, keeping the current array.
+     */
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Pass every value to `action` in order from front to back.
+     */
+    public void forEach(LongConsumer action) {
+        int mask = values.length - 1;
+        for (int i = 0; i < size; i++) {
+            action.accept(values[(head + i) & mask]);
+        }
+    }
+
+    /**
+     * Shrink the array to the smallest power of two that holds the values.
+     */
+    public void trimToSize() {
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(size, 1) * 2 - 1));
+        if (capacity < values.length) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * Copy the values in order to the front of a new array.
+     *
+     * @param capacity of the new array, a power of two.
+     */
+    private void resize(int capacity) {
+        long[] newValues = new long[capacity];
+        int first = Math.min(size, values.length - head);
+        System.arraycopy(values, head, newValues, 0, first);
+        System.arraycopy(values, 0, newValues, first, size - first);
+        values = newValues;
+        head = 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        forEach(value -> {
+            sb.append(value);
+            sb.append("\t");
+        });
+        return sb.toString();
+    }
+
+    public static void main(String[] args) {
+        LongDeque deque = new LongDeque();
+        System.out.println(deque.isEmpty());
+        for (int i = 1; i < 6; i++) {
+            deque.addFirst(i * 1_000_000_000L);
+        }
+
+        for (int i = 6; i < 11; i++) {
+            deque.addLast(i * 1_000_000_000L);
+        }
+
+        System.out.println(deque);
+
+        System.out.println(deque.isEmpty());
+        System.out.println(deque.size());
+
+        System.out.println(deque.removeFirst());
+        System.out.println(deque.removeLast());
+        System.out.println(deque.removeFirst());
+        System.out.println(deque.removeLast());
+        deque.trimToSize();
+        System.out.println(deque);
+    }
+}
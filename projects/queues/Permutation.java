@@ -1,20 +1,34 @@
 package queues;
 
-import edu.princeton.cs.algs4.StdIn;
+import edu.princeton.cs.algs4.StdRandom;
+import fastio.TokenReader;
+import fastio.TokenSampler;
 
 /**
+ * Prints k of the whitespace-separated tokens of standard input, chosen uniformly
+ * at random and in random order.
+ * <p>
+ * The tokens are sampled with {@link TokenSampler}, so only k tokens are kept in
+ * memory however long the input is.
+ *
  * @author huangkai
  */
 public class Permutation {
     public static void main(String[] args) {
         int k = Integer.parseInt(args[0]);
-        RandomizedQueue<String> randomizedQueue = new RandomizedQueue<>();
-        while (!StdIn.isEmpty()) {
-            randomizedQueue.enqueue(StdIn.readString());
+        if (k < 0) {
+            throw new IllegalArgumentException("`k` can't be negative.");
         }
 
-        for (int i = 0; i < k; i++) {
-            System.out.println(randomizedQueue.dequeue());
+        String[] reservoir = TokenSampler.sample(new TokenReader(), k);
+        if (reservoir.length < k) {
+            throw new IllegalArgumentException("`k` is larger than the number of tokens.");
         }
+        StdRandom.shuffle(reservoir);
+        StringBuilder sb = new StringBuilder();
+        for (String item : reservoir) {
+            sb.append(item).append('\n');
+        }
+        System.out.print(sb);
     }
 }
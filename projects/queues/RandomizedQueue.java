@@ -2,8 +2,16 @@ package queues;
 
 import edu.princeton.cs.algs4.StdRandom;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 
 /**
  * @author huangkai
@@ -39,6 +47,11 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
      */
     private Object[] items;
 
+    /**
+     * The number of structural modifications, to fail fast in iterators.
+     */
+    private int modCount;
+
     /**
      * Constructor of randomized queue.
      */
@@ -62,6 +75,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
 
         items[size] = item;
         size++;
+        modCount++;
     }
 
     /**
@@ -77,6 +91,7 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         items[index] = items[size - 1];
         items[size - 1] = null;
         size--;
+        modCount++;
 
         if (size == capacity / SHRINK_FACTOR && capacity / RESIZE_FACTOR >= DEFAULT_CAPACITY) {
             resize(capacity / RESIZE_FACTOR);
@@ -96,6 +111,116 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return (Item) items[index];
     }
 
+    /**
+     * Add all the items to the queue, growing the array at most once.
+     */
+    public void enqueueAll(Item[] newItems) {
+        if (newItems == null) {
+            throw new IllegalArgumentException("Items can't be null.");
+        }
+        for (Item item : newItems) {
+            if (item == null) {
+                throw new IllegalArgumentException("Item can't be null.");
+            }
+        }
+
+        ensureCapacity(size + newItems.length);
+        System.arraycopy(newItems, 0, items, size, newItems.length);
+        size += newItems.length;
+        modCount++;
+    }
+
+    /**
+     * Add all the items to the queue, growing the array at most once.
+     */
+    public void enqueueAll(Collection<? extends Item> newItems) {
+        if (newItems == null) {
+            throw new IllegalArgumentException("Items can't be null.");
+        }
+
+        ensureCapacity(size + newItems.size());
+        int end = size;
+        for (Item item : newItems) {
+            if (item == null || end == capacity) {
+                // undo the items written so far, the queue is left unchanged
+                for (int i = size; i < end; i++) {
+                    items[i] = null;
+                }
+                if (item == null) {
+                    throw new IllegalArgumentException("Item can't be null.");
+                }
+                throw new ConcurrentModificationException();
+            }
+            items[end++] = item;
+        }
+        size = end;
+        modCount++;
+    }
+
+    /**
+     * Remove and return `k` random items, shrinking the array at most once.
+     */
+    public List<Item> dequeue(int k) {
+        if (k < 0 || k > size) {
+            throw new IllegalArgumentException("`k` must be between 0 and the size of the queue.");
+        }
+
+        List<Item> result = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            int index = StdRandom.uniformInt(0, size);
+            result.add((Item) items[index]);
+            items[index] = items[size - 1];
+            items[size - 1] = null;
+            size--;
+        }
+        modCount++;
+        shrinkToFit();
+        return result;
+    }
+
+    /**
+     * @return `k` distinct random items without removing them, in random order.
+     */
+    public List<Item> sample(int k) {
+        if (k < 0 || k > size) {
+            throw new IllegalArgumentException("`k` must be between 0 and the size of the queue.");
+        }
+
+        // the first k steps of Fisher–Yates over the indices, as in the iterator
+        List<Item> result = new ArrayList<>(k);
+        SwapLog swaps = new SwapLog();
+        for (int i = 0; i < k; i++) {
+            int j = i + StdRandom.uniformInt(size - i);
+            result.add((Item) items[swaps.get(j)]);
+            swaps.put(j, swaps.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Remove every item, passing them to `action` in random order.
+     *
+     * @return the number of items removed.
+     */
+    public int drainTo(Consumer<? super Item> action) {
+        if (action == null) {
+            throw new IllegalArgumentException("The action can't be null.");
+        }
+
+        int drained = size;
+        modCount++;
+        while (size > 0) {
+            int index = StdRandom.uniformInt(0, size);
+            Item item = (Item) items[index];
+            items[index] = items[size - 1];
+            items[size - 1] = null;
+            size--;
+            action.accept(item);
+        }
+        shrinkToFit();
+        return drained;
+    }
+
     /**
      * @return whether the queue is empty.
      */
@@ -117,6 +242,32 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return size == capacity;
     }
 
+    /**
+     * Grow the queue once so that it can carry `needed` items.
+     */
+    private void ensureCapacity(int needed) {
+        if (needed > capacity) {
+            long newCapacity = capacity;
+            while (newCapacity < needed) {
+                newCapacity *= RESIZE_FACTOR;
+            }
+            resize((int) Math.min(newCapacity, Integer.MAX_VALUE - 8));
+        }
+    }
+
+    /**
+     * Shrink the queue once, as far as single dequeues would have shrunk it.
+     */
+    private void shrinkToFit() {
+        int newCapacity = capacity;
+        while (size <= newCapacity / SHRINK_FACTOR && newCapacity / RESIZE_FACTOR >= DEFAULT_CAPACITY) {
+            newCapacity /= RESIZE_FACTOR;
+        }
+        if (newCapacity != capacity) {
+            resize(newCapacity);
+        }
+    }
+
     /**
      * Resize the queue.
      *
@@ -134,28 +285,81 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         return new RandomizedQueueIterator();
     }
 
-    private class RandomizedQueueIterator implements Iterator<Item> {
-        private final Object[] copyItems;
-        private int remain;
+    /**
+     * The lazy iterator can't be split, so the spliterator shuffles a snapshot of
+     * the items up front, which parallel streams can split in halves of exact size.
+     * Later changes to the queue don't affect it.
+     *
+     * @return a spliterator over a snapshot of the items, in uniformly random order.
+     */
+    @Override
+    public Spliterator<Item> spliterator() {
+        Object[] snapshot = Arrays.copyOf(items, size);
+        StdRandom.shuffle(snapshot);
+        return Spliterators.spliterator(snapshot, Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
 
-        public RandomizedQueueIterator() {
-            copyItems = new Object[size];
-            System.arraycopy(items, 0, copyItems, 0, size);
-            StdRandom.shuffle(copyItems);
-            remain = size;
-        }
+    /**
+     * Iterates in uniformly random order without copying the items.
+     * <p>
+     * It runs Fisher–Yates lazily over the virtual array of indices [0, size): the
+     * i-th call swaps position i with a random position in [i, size) and returns the
+     * item at the index found there. Only the positions not consumed yet and moved
+     * away from their identity are recorded, so reading k items costs O(k) time and
+     * memory. Once the record would outgrow a plain array of the indices, it is
+     * turned into one, so iterating over everything costs at most 4 bytes per item.
+     */
+    private class RandomizedQueueIterator implements Iterator<Item> {
+        private final int expectedModCount = modCount;
+        private final int total = size;
+        private SwapLog swaps = new SwapLog();
+        private int[] permutation;
+        private int next = 0;
 
         @Override
         public Item next() {
-            if (remain == 0) {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == total) {
                 throw new NoSuchElementException();
             }
-            return (Item) copyItems[--remain];
+
+            int j = next + StdRandom.uniformInt(total - next);
+            int index;
+            if (permutation != null) {
+                index = permutation[j];
+                permutation[j] = permutation[next];
+            } else {
+                int atNext = swaps.remove(next);
+                if (j == next) {
+                    index = atNext;
+                } else {
+                    index = swaps.get(j);
+                    swaps.put(j, atNext);
+                }
+                if (swaps.count > total / 8) {
+                    densify();
+                }
+            }
+            next++;
+            return (Item) items[index];
+        }
+
+        /**
+         * Replace the swap log by the plain array of the indices not consumed yet.
+         */
+        private void densify() {
+            permutation = new int[total];
+            for (int i = next + 1; i < total; i++) {
+                permutation[i] = swaps.get(i);
+            }
+            swaps = null;
         }
 
         @Override
         public boolean hasNext() {
-            return remain != 0;
+            return next != total;
         }
 
         @Override
@@ -164,6 +368,105 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
         }
     }
 
+    /**
+     * A sparse int-to-int map with open addressing, missing keys map to themselves.
+     */
+    private static class SwapLog {
+        private int[] keys = new int[16];
+        private int[] values = new int[16];
+        private int count;
+
+        int get(int key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key + 1) {
+                    return values[i];
+                }
+            }
+            return key;
+        }
+
+        void put(int key, int value) {
+            if (value == key) {
+                remove(key);
+                return;
+            }
+
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != 0 && keys[i] != key + 1) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == 0) {
+                keys[i] = key + 1;
+                count++;
+            }
+            values[i] = value;
+            if (count * 2 > keys.length) {
+                rehash();
+            }
+        }
+
+        /**
+         * Remove the key.
+         *
+         * @return the value it mapped to.
+         */
+        int remove(int key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                if (keys[i] == key + 1) {
+                    int value = values[i];
+                    delete(i);
+                    count--;
+                    return value;
+                }
+            }
+            return key;
+        }
+
+        /**
+         * Empty the slot, moving back the later entries of its probe run that can't
+         * be found past an empty slot otherwise.
+         */
+        private void delete(int hole) {
+            int mask = keys.length - 1;
+            for (int i = (hole + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+                int home = hash(keys[i] - 1) & mask;
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    keys[hole] = keys[i];
+                    values[hole] = values[i];
+                    hole = i;
+                }
+            }
+            keys[hole] = 0;
+        }
+
+        private void rehash() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldValues.length * 2];
+            count = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i] - 1, oldValues[i]);
+                }
+            }
+        }
+
+        /**
+         * Mixes all 32 bits, the positions are consecutive numbers.
+         */
+        private static int hash(int key) {
+            int h = key ^ (key >>> 16);
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            h *= 0xC2B2AE35;
+            return h ^ (h >>> 16);
+        }
+    }
+
     public static void main(String[] args) {
         RandomizedQueue<Integer> randomizedQueue = new RandomizedQueue<>();
         System.out.println(randomizedQueue.size());
@@ -191,5 +494,15 @@ public class RandomizedQueue<Item> implements Iterable<Item> {
             System.out.print(item);
             System.out.print("\t");
         }
+        System.out.println();
+
+        randomizedQueue.enqueueAll(new Integer[]{11, 12, 13, 14, 15});
+        randomizedQueue.enqueueAll(Arrays.asList(16, 17, 18, 19, 20));
+        System.out.println(randomizedQueue.sample(3));
+        System.out.println(randomizedQueue.dequeue(3));
+        System.out.println(randomizedQueue.size());
+        randomizedQueue.drainTo(item -> System.out.print(item + "\t"));
+        System.out.println();
+        System.out.println(randomizedQueue.isEmpty());
     }
 }
@@ -0,0 +1,332 @@
+package queues;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.StreamSupport;
+
+/**
+ * A deque with the same API as {@link Deque}, backed by a circular array.
+ * <p>
+ * The capacity is a power of two, so wrapping around is a mask instead of a branch
+ * or a modulo. The array doubles when full and halves when a quarter full, so every
+ * operation is amortized O(1) and no node is allocated per item.
+ * <p>
+ * Iterators and spliterators fail fast when the deque is modified while they are in
+ * use. The spliterator splits index ranges in halves and knows their exact sizes,
+ * so parallel streams over the deque divide the work evenly.
+ *
+ * @author huangkai
+ */
+public class RingDeque<Item> implements Iterable<Item> {
+    /**
+     * The starting and minimum capacity, a power of two.
+     */
+    private static final int MIN_CAPACITY = 8;
+
+    /**
+     * The circular array to carry items, its length is a power of two.
+     */
+    private Object[] items;
+
+    /**
+     * The index of the front item.
+     */
+    private int head;
+
+    /**
+     * The size of the deque.
+     */
+    private int size;
+
+    /**
+     * The number of modifications, to fail fast in iterators and spliterators.
+     */
+    private int modCount;
+
+    /**
+     * Constructor of deque.
+     */
+    public RingDeque() {
+        items = new Object[MIN_CAPACITY];
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * Add the item to the front.
+     */
+    public void addFirst(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item can't be null.");
+        }
+
+        if (size == items.length) {
+            resize(items.length * 2);
+        }
+        head = (head - 1) & (items.length - 1);
+        items[head] = item;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Add the item to the back
+     */
+    public void addLast(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item can't be null.");
+        }
+
+        if (size == items.length) {
+            resize(items.length * 2);
+        }
+        items[(head + size) & (items.length - 1)] = item;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * remove and return the item from the front
+     */
+    public Item removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+
+        @SuppressWarnings("unchecked")
+        Item item = (Item) items[head];
+        items[head] = null;
+        head = (head + 1) & (items.length - 1);
+        size--;
+        modCount++;
+        shrinkIfSparse();
+        return item;
+    }
+
+    /**
+     * remove and return the item from the back
+     */
+    public Item removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+
+        int tail = (head + size - 1) & (items.length - 1);
+        @SuppressWarnings("unchecked")
+        Item item = (Item) items[tail];
+        items[tail] = null;
+        size--;
+        modCount++;
+        shrinkIfSparse();
+        return item;
+    }
+
+    /**
+     * @return whether the deque is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of items on the deque.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Halve the array when it is a quarter full.
+     */
+    private void shrinkIfSparse() {
+        if (size == items.length / 4 && items.length > MIN_CAPACITY) {
+            resize(items.length / 2);
+        }
+    }
+
+    /**
+     * Copy the items in order to the front of a new array.
+     *
+     * @param capacity of the new array, a power of two.
+     */
+    private void resize(int capacity) {
+        Object[] newItems = new Object[capacity];
+        int first = Math.min(size, items.length - head);
+        System.arraycopy(items, head, newItems, 0, first);
+        System.arraycopy(items, 0, newItems, first, size - first);
+        items = newItems;
+        head = 0;
+    }
+
+    /**
+     * @return an iterator over items in order from front to back.
+     */
+    @Override
+    public Iterator<Item> iterator() {
+        return new RingDequeIterator();
+    }
+
+    /**
+     * @return a spliterator over items in order from front to back, with exact sizes.
+     */
+    @Override
+    public Spliterator<Item> spliterator() {
+        return new RingDequeSpliterator(0, size);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Item item : this) {
+            sb.append(item);
+            sb.append("\t");
+        }
+        return sb.toString();
+    }
+
+    private class RingDequeIterator implements Iterator<Item> {
+        private final int expectedModCount = modCount;
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        public Item next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            @SuppressWarnings("unchecked")
+            Item item = (Item) items[(head + index++) & (items.length - 1)];
+            return item;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("The deque implementation doesn't support remove operation.");
+        }
+    }
+
+    /**
+     * Covers the items at positions [index, fence) counted from the front, of the
+     * array as it was when the first spliterator was made.
+     */
+    private class RingDequeSpliterator implements Spliterator<Item> {
+        private final Object[] array;
+        private final int first;
+        private final int mask;
+        private final int expectedModCount;
+        private int index;
+        private final int fence;
+
+        RingDequeSpliterator(int index, int fence) {
+            this(items, head, items.length - 1, modCount, index, fence);
+        }
+
+        /**
+         * Constructor of a part split off, which shares the state of its parent.
+         */
+        private RingDequeSpliterator(Object[] array, int first, int mask, int expectedModCount, int index, int fence) {
+            this.array = array;
+            this.first = first;
+            this.mask = mask;
+            this.expectedModCount = expectedModCount;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Item> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (index == fence) {
+                return false;
+            }
+            @SuppressWarnings("unchecked")
+            Item item = (Item) array[(first + index++) & mask];
+            action.accept(item);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Item> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            for (; index < fence; index++) {
+                @SuppressWarnings("unchecked")
+                Item item = (Item) array[(first + index) & mask];
+                action.accept(item);
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public Spliterator<Item> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid == index) {
+                return null;
+            }
+            RingDequeSpliterator prefix = new RingDequeSpliterator(array, first, mask, expectedModCount, index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL;
+        }
+    }
+
+
+    public static void main(String[] args) {
+        RingDeque<Integer> deque = new RingDeque<>();
+        System.out.println(deque.isEmpty());
+        for (int i = 1; i < 6; i++) {
+            deque.addFirst(i);
+        }
+
+        for (int i = 6; i < 11; i++) {
+            deque.addLast(i);
+        }
+
+        System.out.println(deque);
+
+        System.out.println(deque.isEmpty());
+        System.out.println(deque.size);
+
+        for (Integer item : deque) {
+            System.out.println(item);
+        }
+
+        System.out.println(StreamSupport.stream(deque.spliterator(), true).mapToInt(Integer::intValue).sum());
+
+        System.out.println(deque.removeFirst());
+        System.out.println(deque.removeLast());
+        System.out.println(deque.removeFirst());
+        System.out.println(deque.removeLast());
+        while (!deque.isEmpty()) {
+            deque.removeLast();
+        }
+        System.out.println(deque.items.length);
+    }
+}
@@ -0,0 +1,161 @@
+package queues;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-threaded throughput benchmark of {@link WorkStealingDeque} against a {@link Deque}
+ * shared under `synchronized`.
+ * <p>
+ * Every worker produces items onto its own end and consumes them again, half of the
+ * workers produce four times as much as the others, and a worker that runs out steals
+ * from a random victim. With the synchronized deque every worker shares one deque and
+ * one lock. Reports million items consumed per second for each thread count.
+ *
+ * @author huangkai
+ */
+public class WorkStealingBenchmark {
+    /**
+     * The item pushed every time, so the benchmark doesn't measure boxing.
+     */
+    private static final Integer ITEM = 42;
+
+    /**
+     * A worker's view of the structure under test.
+     */
+    private interface Worker {
+        void push(Integer item);
+
+        /**
+         * @return an item of this worker or a stolen one, `null` if none was found
+         */
+        Integer take();
+    }
+
+    private static Worker[] stealing(int threads) {
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        WorkStealingDeque<Integer>[] deques = new WorkStealingDeque[threads];
+        Worker[] workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            deques[i] = new WorkStealingDeque<>();
+        }
+        for (int i = 0; i < threads; i++) {
+            WorkStealingDeque<Integer> own = deques[i];
+            workers[i] = new Worker() {
+                @Override
+                public void push(Integer item) {
+                    own.push(item);
+                }
+
+                @Override
+                public Integer take() {
+                    Integer item = own.pop();
+                    for (int attempt = 0; item == null && attempt < threads; attempt++) {
+                        item = deques[ThreadLocalRandom.current().nextInt(threads)].steal();
+                    }
+                    return item;
+                }
+            };
+        }
+        return workers;
+    }
+
+    private static Worker[] synchronizedDeque(int threads) {
+        Deque<Integer> deque = new Deque<>();
+        Worker[] workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker() {
+                @Override
+                public void push(Integer item) {
+                    synchronized (deque) {
+                        deque.addLast(item);
+                    }
+                }
+
+                @Override
+                public Integer take() {
+                    synchronized (deque) {
+                        return deque.isEmpty() ? null : deque.removeLast();
+                    }
+                }
+            };
+        }
+        return workers;
+    }
+
+    /**
+     * @return million items consumed per second
+     */
+    private static double run(Worker[] workers, int itemsPerWorker) throws InterruptedException {
+        int threads = workers.length;
+        long total = 0;
+        long[] produce = new long[threads];
+        for (int i = 0; i < threads; i++) {
+            produce[i] = i % 2 == 0 ? itemsPerWorker * 4L : itemsPerWorker;
+            total += produce[i];
+        }
+
+        AtomicLong consumed = new AtomicLong();
+        long expected = total;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] pool = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            Worker worker = workers[i];
+            long toProduce = produce[i];
+            pool[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long taken = 0;
+                for (long j = 0; j < toProduce; j++) {
+                    worker.push(ITEM);
+                    if ((j & 1) == 0 && worker.take() != null) {
+                        taken++;
+                    }
+                }
+                consumed.addAndGet(taken);
+                while (consumed.get() < expected) {
+                    taken = 0;
+                    for (int k = 0; k < 1024 && worker.take() != null; k++) {
+                        taken++;
+                    }
+                    if (taken > 0) {
+                        consumed.addAndGet(taken);
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            });
+            pool[i].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : pool) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return total * 1e3 / elapsed;
+    }
+
+    /**
+     * Usage: WorkStealingBenchmark itemsPerWorker threads1 [threads2 ...]
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int itemsPerWorker = Integer.parseInt(args[0]);
+        for (int round = 0; round < 2; round++) {
+            for (int i = 1; i < args.length; i++) {
+                int threads = Integer.parseInt(args[i]);
+                double stealing = run(stealing(threads), itemsPerWorker);
+                double locked = run(synchronizedDeque(threads), itemsPerWorker);
+                if (round == 1) {
+                    System.out.printf("threads = %3d  work-stealing %8.2f M items/s  synchronized %8.2f M items/s%n",
+                            threads, stealing, locked);
+                }
+            }
+        }
+    }
+}
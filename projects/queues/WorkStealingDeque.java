@@ -0,0 +1,174 @@
+package queues;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free work-stealing deque (Chase and Lev, "Dynamic Circular Work-Stealing Deque").
+ * <p>
+ * One owner thread calls {@link #push(Object)} and {@link #pop()} at the back, like
+ * `addLast` and `removeLast` of {@link Deque}. Any other thread calls {@link #steal()}
+ * at the front, like `removeFirst`. The owner only touches a shared counter when the
+ * deque is about to become empty, so pushes and pops do not contend with thieves.
+ * <p>
+ * Because the size can change between a check and a removal, `pop` and `steal`
+ * return `null` when the deque is empty instead of throwing.
+ *
+ * @author huangkai
+ */
+public class WorkStealingDeque<Item> {
+    /**
+     * The starting capacity, a power of two.
+     */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /**
+     * The circular array to carry items, replaced by a bigger copy when full.
+     */
+    private volatile AtomicReferenceArray<Object> items;
+
+    /**
+     * The index of the front item, only increases, advanced by CAS by thieves and
+     * by the owner taking the last item.
+     */
+    private final AtomicLong top = new AtomicLong();
+
+    /**
+     * The index after the back item, only written by the owner.
+     */
+    private volatile long bottom;
+
+    /**
+     * Constructor of deque.
+     */
+    public WorkStealingDeque() {
+        items = new AtomicReferenceArray<>(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Add the item to the back, only called by the owner.
+     */
+    public void push(Item item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item can't be null.");
+        }
+
+        long b = bottom;
+        long t = top.get();
+        AtomicReferenceArray<Object> a = items;
+        if (b - t >= a.length()) {
+            a = grow(a, t, b);
+        }
+        a.set((int) b & (a.length() - 1), item);
+        bottom = b + 1;
+    }
+
+    /**
+     * Remove and return the item at the back, only called by the owner.
+     *
+     * @return the item, or `null` if the deque is empty
+     */
+    public Item pop() {
+        long b = bottom - 1;
+        AtomicReferenceArray<Object> a = items;
+        bottom = b;
+        long t = top.get();
+        if (t > b) {
+            bottom = b + 1;
+            return null;
+        }
+
+        int index = (int) b & (a.length() - 1);
+        @SuppressWarnings("unchecked")
+        Item item = (Item) a.get(index);
+        if (t == b) {
+            // the last item, race the thieves for it
+            if (!top.compareAndSet(t, t + 1)) {
+                item = null;
+            }
+            bottom = b + 1;
+        }
+        if (item != null) {
+            a.set(index, null);
+        }
+        return item;
+    }
+
+    /**
+     * Remove and return the item at the front, called by any thread.
+     *
+     * @return the item, or `null` if the deque is empty
+     */
+    public Item steal() {
+        while (true) {
+            long t = top.get();
+            long b = bottom;
+            if (t >= b) {
+                return null;
+            }
+
+            AtomicReferenceArray<Object> a = items;
+            @SuppressWarnings("unchecked")
+            Item item = (Item) a.get((int) t & (a.length() - 1));
+            if (top.compareAndSet(t, t + 1)) {
+                return item;
+            }
+        }
+    }
+
+    /**
+     * @return whether the deque is empty, may be stale when other threads are active.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return the number of items on the deque, may be stale when other threads are active.
+     */
+    public int size() {
+        long n = bottom - top.get();
+        return n > 0 ? (int) n : 0;
+    }
+
+    /**
+     * Copy the items [t, b) to an array twice as large and publish it.
+     * <p>
+     * The old array is left as is, so a thief still reading it sees the same items.
+     */
+    private AtomicReferenceArray<Object> grow(AtomicReferenceArray<Object> a, long t, long b) {
+        AtomicReferenceArray<Object> newItems = new AtomicReferenceArray<>(a.length() * 2);
+        for (long i = t; i < b; i++) {
+            newItems.set((int) i & (newItems.length() - 1), a.get((int) i & (a.length() - 1)));
+        }
+        items = newItems;
+        return newItems;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        System.out.println(deque.isEmpty());
+        for (int i = 1; i < 101; i++) {
+            deque.push(i);
+        }
+        System.out.println(deque.size());
+        System.out.println(deque.pop());
+        System.out.println(deque.steal());
+
+        Thread thief = new Thread(() -> {
+            int stolen = 0;
+            while (deque.steal() != null) {
+                stolen++;
+            }
+            System.out.println("stolen " + stolen);
+        });
+        thief.start();
+        int popped = 0;
+        while (deque.pop() != null) {
+            popped++;
+        }
+        thief.join();
+        System.out.println("popped " + popped);
+        System.out.println(deque.isEmpty());
+    }
+}